@@ -0,0 +1,91 @@
+package com.techup.spring_tourist.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.techup.spring_tourist.dto.PaginatedResponse;
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Encoding one trip listing page in each negotiable format, configured like the application's mappers. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({"10", "50", "200"})
+	private int pageSize;
+
+	@Param({"json", "cbor", "smile"})
+	private String format;
+
+	private ObjectMapper mapper;
+	private PaginatedResponse<Trip> page;
+
+	@Setup
+	public void setUp() {
+		Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+				.serializationInclusion(JsonInclude.Include.NON_NULL);
+		mapper = switch (format) {
+			case "cbor" -> builder.factory(new CBORFactory()).build();
+			case "smile" -> builder.factory(new SmileFactory()).build();
+			default -> builder.build();
+		};
+		page = new PaginatedResponse<>(trips(pageSize), 0, pageSize, 1_000, 1_000 / pageSize);
+	}
+
+	@Benchmark
+	public byte[] serializePage() throws Exception {
+		return mapper.writeValueAsBytes(page);
+	}
+
+	private static List<Trip> trips(int count) {
+		User author = new User();
+		author.setId(7L);
+		author.setEmail("author@example.com");
+		author.setDisplayName("Author");
+		OffsetDateTime createdAt = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+		List<Trip> trips = new ArrayList<>(count);
+		for (long i = 0; i < count; i++) {
+			Trip trip = new Trip();
+			trip.setId(i);
+			trip.setTitle("Trip " + i + " along the river");
+			trip.setDescription("Boat ride, night market and temples; about two days in total.");
+			trip.setPhotos(new String[] {
+					"https://project.supabase.co/storage/v1/object/public/uploads/" + i + "a.jpg",
+					"https://project.supabase.co/storage/v1/object/public/uploads/" + i + "b.jpg"});
+			trip.setTags(new String[] {"river", "market", "temple"});
+			trip.setLocation("Bangkok");
+			trip.setLatitude(13.75 + i * 0.001);
+			trip.setLongitude(100.5 + i * 0.001);
+			trip.setCreatedAt(createdAt.plusMinutes(i));
+			trip.setUpdatedAt(createdAt.plusMinutes(i));
+			trip.setAuthor(author);
+			trips.add(trip);
+		}
+		return trips;
+	}
+}
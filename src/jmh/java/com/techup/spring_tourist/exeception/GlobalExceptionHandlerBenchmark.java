@@ -0,0 +1,72 @@
+package com.techup.spring_tourist.exeception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Error responses: building the body in the handler and writing it as JSON. The generic
+ * {@code RuntimeException} handler prints the stack trace; stderr is discarded so only the
+ * cost of producing it is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+	private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private ResponseStatusException notFound;
+	private MissingServletRequestParameterException missingParameter;
+	private RuntimeException runtime;
+	private PrintStream stderr;
+
+	@Setup
+	public void setUp() {
+		notFound = new ResponseStatusException(HttpStatus.NOT_FOUND, "Trip not found");
+		missingParameter = new MissingServletRequestParameterException("title", "String");
+		runtime = new RuntimeException("Trip not found");
+		stderr = System.err;
+		System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+	}
+
+	@TearDown
+	public void tearDown() {
+		System.setErr(stderr);
+	}
+
+	@Benchmark
+	public byte[] responseStatus() throws Exception {
+		return objectMapper.writeValueAsBytes(handler.handleResponseStatus(notFound).getBody());
+	}
+
+	@Benchmark
+	public byte[] missingParameter() throws Exception {
+		return objectMapper.writeValueAsBytes(handler.handleMissingParameter(missingParameter).getBody());
+	}
+
+	@Benchmark
+	public byte[] runtimeException() throws Exception {
+		return objectMapper.writeValueAsBytes(handler.handleRuntime(runtime).getBody());
+	}
+}
@@ -0,0 +1,86 @@
+package com.techup.spring_tourist.security;
+
+import com.techup.spring_tourist.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and verification. {@code extractEmailUncached} gets a service with an empty
+ * verified-token cache on every invocation, so it measures the HMAC check and claims parsing
+ * that a first request with a token pays. The per-invocation setup lives in its own state so
+ * the other benchmarks do not pay for it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+	private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+	private JwtService jwtService;
+	private User user;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtService = jwtService(10_000);
+		user = new User();
+		user.setId(42L);
+		user.setEmail("traveller@example.com");
+		user.setDisplayName("Traveller");
+		token = jwtService.generateToken(user);
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtService.generateToken(user);
+	}
+
+	@Benchmark
+	public String extractEmailCached() {
+		return jwtService.extractEmail(token);
+	}
+
+	@Benchmark
+	public String extractEmailUncached(EmptyCache emptyCache) {
+		return emptyCache.jwtService.extractEmail(token);
+	}
+
+	@State(Scope.Thread)
+	public static class EmptyCache {
+
+		private JwtService jwtService;
+
+		@Setup(Level.Invocation)
+		public void setUp() {
+			jwtService = JwtServiceBenchmark.jwtService(0);
+		}
+	}
+
+	private static JwtService jwtService(long cacheMaximumSize) {
+		JwtService jwtService = new JwtService(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+		ReflectionTestUtils.setField(jwtService, "expirationMs", 3_600_000L);
+		ReflectionTestUtils.setField(jwtService, "cacheMaximumSize", cacheMaximumSize);
+		ReflectionTestUtils.setField(jwtService, "cacheTtl", Duration.ofMinutes(5));
+		jwtService.init();
+		return jwtService;
+	}
+}
@@ -0,0 +1,62 @@
+package com.techup.spring_tourist.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Object naming for uploads: SHA-256 over the file (by size) plus extension cleanup and URL
+ * building, everything {@code uploadFile} does before the network call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageNamingBenchmark {
+
+	@Param({"65536", "1048576", "8388608"})
+	private int fileSize;
+
+	private SupabaseStorageService storageService;
+	private MultipartFile[] files;
+	private String sha256;
+
+	@Setup
+	public void setUp() {
+		storageService = new SupabaseStorageService(WebClient.create(), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(storageService, "supabaseUrl", "https://project.supabase.co");
+		ReflectionTestUtils.setField(storageService, "bucket", "uploads");
+		byte[] content = new byte[fileSize];
+		new Random(1).nextBytes(content);
+		files = new MultipartFile[] {new MockMultipartFile("file", "Beach Day (1).JPEG", "image/jpeg", content)};
+		sha256 = storageService.planUploads(files)[0];
+	}
+
+	@Benchmark
+	public String planUpload() {
+		return storageService.planUploads(files)[0];
+	}
+
+	@Benchmark
+	public String contentUrl() {
+		return storageService.contentUrl(sha256, "Beach Day (1).JPEG");
+	}
+}
@@ -0,0 +1,102 @@
+package com.techup.spring_tourist.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for Supabase storage: accepts the object PUT and the prefix DELETE that
+ * {@code SupabaseStorageService} sends, after a configurable delay (base plus up to
+ * {@code jitter}). Bodies are read and discarded; only names and sizes are kept.
+ */
+class FakeStorageServer implements AutoCloseable {
+
+	private static final String OBJECT_PATH = "/storage/v1/object/";
+
+	private final HttpServer server;
+	private final Duration latency;
+	private final Duration jitter;
+	private final Map<String, Long> objects = new ConcurrentHashMap<>();
+	private final AtomicLong bytesReceived = new AtomicLong();
+
+	FakeStorageServer(Duration latency, Duration jitter) throws IOException {
+		this.latency = latency;
+		this.jitter = jitter;
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext(OBJECT_PATH, this::handle);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.start();
+	}
+
+	String url() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	int objectCount() {
+		return objects.size();
+	}
+
+	long bytesReceived() {
+		return bytesReceived.get();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			long received = drain(exchange.getRequestBody());
+			delay();
+			String name = exchange.getRequestURI().getPath().substring(OBJECT_PATH.length());
+			switch (exchange.getRequestMethod()) {
+				case "PUT", "POST" -> {
+					bytesReceived.addAndGet(received);
+					objects.put(name, received);
+					respond(exchange, 200, "{\"Key\":\"" + name + "\"}");
+				}
+				// Prefix delete sends the names in the body; the stand-in only needs to acknowledge it
+				case "DELETE" -> respond(exchange, 200, "[]");
+				default -> respond(exchange, 405, "{\"error\":\"Method not allowed\"}");
+			}
+		}
+	}
+
+	private void delay() {
+		long nanos = latency.toNanos() + (jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toNanos()));
+		if (nanos > 0) {
+			try {
+				Thread.sleep(Duration.ofNanos(nanos));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static long drain(InputStream body) throws IOException {
+		byte[] buffer = new byte[64 * 1024];
+		long total = 0;
+		int read;
+		while ((read = body.read(buffer)) != -1) {
+			total += read;
+		}
+		return total;
+	}
+
+	private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+		byte[] bytes = json.getBytes();
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		exchange.getResponseBody().write(bytes);
+	}
+}
@@ -0,0 +1,76 @@
+package com.techup.spring_tourist.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Latency histograms (1 µs to 60 s, 3 significant digits) and error counts per endpoint. */
+class LatencyReport {
+
+	private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+	void record(String endpoint, long nanos, boolean ok) {
+		Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+		synchronized (stats.histogram) {
+			stats.histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), stats.histogram.getHighestTrackableValue()));
+		}
+		if (!ok) {
+			stats.errors.incrementAndGet();
+		}
+	}
+
+	void reset() {
+		endpoints.clear();
+	}
+
+	List<Map<String, Object>> summary(double seconds) {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		endpoints.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+			Histogram histogram;
+			synchronized (entry.getValue().histogram) {
+				histogram = entry.getValue().histogram.copy();
+			}
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("endpoint", entry.getKey());
+			row.put("requests", histogram.getTotalCount());
+			row.put("errors", entry.getValue().errors.get());
+			row.put("throughputPerSecond", round(histogram.getTotalCount() / seconds));
+			row.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+			row.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+			row.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+			row.put("maxMs", millis(histogram.getMaxValue()));
+			rows.add(row);
+		});
+		return rows;
+	}
+
+	static String format(List<Map<String, Object>> rows) {
+		StringBuilder table = new StringBuilder(String.format("%-22s %9s %7s %9s %9s %9s %9s %9s%n",
+				"endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+		for (Map<String, Object> row : rows) {
+			table.append(String.format("%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+					row.get("endpoint"), row.get("requests"), row.get("errors"), row.get("throughputPerSecond"),
+					row.get("p50Ms"), row.get("p90Ms"), row.get("p99Ms"), row.get("maxMs")));
+		}
+		return table.toString();
+	}
+
+	private static double millis(long micros) {
+		return round(micros / 1000.0);
+	}
+
+	private static double round(double value) {
+		return Math.round(value * 100) / 100.0;
+	}
+
+	private static final class Endpoint {
+		private final Histogram histogram = new Histogram(TimeUnit.SECONDS.toMicros(60), 3);
+		private final AtomicLong errors = new AtomicLong();
+	}
+}
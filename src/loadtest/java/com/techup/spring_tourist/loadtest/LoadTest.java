@@ -0,0 +1,357 @@
+package com.techup.spring_tourist.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.techup.spring_tourist.SpringTouristApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end load test. Starts the application against an embedded Postgres (or
+ * {@code jdbc-url}) and {@link FakeStorageServer}, seeds users and trips, then runs
+ * {@code users} virtual users for {@code duration}, each picking an operation by the weights
+ * in {@code mix}. Prints p50/p90/p99 latency and throughput per endpoint and writes them to
+ * {@code output} as JSON.
+ * <p>
+ * Options are {@code key=value} arguments, see {@link #DEFAULTS}; from Maven:
+ * {@code mvn -Pload-test verify -Dloadtest.args="users=100 duration=PT2M storage-latency=PT0.08S"}.
+ */
+public class LoadTest {
+
+	static final Map<String, String> DEFAULTS = Map.ofEntries(
+			Map.entry("users", "50"),
+			Map.entry("duration", "PT60S"),
+			Map.entry("warmup", "PT15S"),
+			Map.entry("mix", "login:5,search:50,list:30,get:10,create:5"),
+			Map.entry("seed-users", "20"),
+			Map.entry("seed-trips", "2000"),
+			Map.entry("photo-pool", "64"),
+			Map.entry("storage-latency", "PT0.05S"),
+			Map.entry("storage-jitter", "PT0.02S"),
+			Map.entry("jdbc-url", ""),
+			Map.entry("jdbc-username", "postgres"),
+			Map.entry("jdbc-password", "postgres"),
+			Map.entry("output", "target/loadtest-result.json"));
+
+	private static final String PASSWORD = "load-test-password";
+	private static final String[] WORDS = {
+			"beach", "temple", "market", "mountain", "river", "island", "waterfall", "night", "street", "food",
+			"hiking", "diving", "sunset", "garden", "museum", "cafe", "village", "lake", "cave", "festival"};
+
+	private final Map<String, String> options;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient http = HttpClient.newBuilder()
+			.executor(Executors.newVirtualThreadPerTaskExecutor())
+			.connectTimeout(Duration.ofSeconds(10))
+			.build();
+	private final LatencyReport report = new LatencyReport();
+	private final List<byte[]> photos = new ArrayList<>();
+	private String baseUrl;
+
+	LoadTest(Map<String, String> options) {
+		this.options = options;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>(DEFAULTS);
+		for (String arg : args) {
+			int eq = arg.indexOf('=');
+			if (eq < 0 || !DEFAULTS.containsKey(arg.substring(0, eq))) {
+				throw new IllegalArgumentException("Unknown option " + arg + ", expected one of " + DEFAULTS.keySet());
+			}
+			options.put(arg.substring(0, eq), arg.substring(eq + 1));
+		}
+		new LoadTest(options).run();
+		System.exit(0);
+	}
+
+	void run() throws Exception {
+		EmbeddedPostgres postgres = null;
+		String jdbcUrl = options.get("jdbc-url");
+		if (jdbcUrl.isEmpty()) {
+			postgres = EmbeddedPostgres.builder().start();
+			jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+		}
+		try (FakeStorageServer storage = new FakeStorageServer(
+				duration("storage-latency"), duration("storage-jitter"));
+			 ConfigurableApplicationContext app = startApplication(jdbcUrl, storage.url())) {
+			baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+			generatePhotos(integer("photo-pool"));
+
+			List<String> emails = seed(integer("seed-users"), integer("seed-trips"));
+			Map<String, Integer> mix = parseMix(options.get("mix"));
+
+			System.out.printf("Warming up for %s%n", duration("warmup"));
+			drive(emails, mix, duration("warmup"));
+			report.reset();
+
+			System.out.printf("Measuring %d users for %s, mix %s%n", integer("users"), duration("duration"), mix);
+			long start = System.nanoTime();
+			drive(emails, mix, duration("duration"));
+			double seconds = (System.nanoTime() - start) / 1e9;
+
+			List<Map<String, Object>> rows = report.summary(seconds);
+			System.out.print(LatencyReport.format(rows));
+			System.out.printf("Storage: %d objects, %d MB received%n", storage.objectCount(), storage.bytesReceived() >> 20);
+			writeResult(rows, seconds);
+		} finally {
+			if (postgres != null) {
+				postgres.close();
+			}
+		}
+	}
+
+	private ConfigurableApplicationContext startApplication(String jdbcUrl, String storageUrl) {
+		Map<String, String> properties = new LinkedHashMap<>();
+		properties.put("server.port", "0");
+		properties.put("spring.datasource.url", jdbcUrl);
+		properties.put("spring.datasource.username", options.get("jdbc-username"));
+		properties.put("spring.datasource.password", options.get("jdbc-password"));
+		properties.put("spring.jpa.show-sql", "false");
+		properties.put("logging.level.com.techup", "INFO");
+		properties.put("logging.level.org.hibernate.SQL", "WARN");
+		properties.put("supabase.url", storageUrl);
+		properties.put("supabase.serviceRoleKey", "load-test");
+		properties.put("jwt.secret", UUID.randomUUID() + "-" + UUID.randomUUID());
+		// As command-line arguments, which win over the environment placeholders in application.properties
+		return SpringApplication.run(SpringTouristApplication.class, properties.entrySet().stream()
+				.map(property -> "--" + property.getKey() + "=" + property.getValue())
+				.toArray(String[]::new));
+	}
+
+	private List<String> seed(int users, int trips) throws Exception {
+		System.out.printf("Seeding %d users and %d trips%n", users, trips);
+		List<String> emails = new ArrayList<>(users);
+		for (int i = 0; i < users; i++) {
+			String email = "load-" + i + "-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+			send(json("/api/auth/register", Map.of("email", email, "password", PASSWORD, "displayName", "Load " + i), null));
+			emails.add(email);
+		}
+
+		// One NDJSON import, so seeding goes through the batched insert path instead of one request per trip
+		Random random = new Random(42);
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		for (int i = 0; i < trips; i++) {
+			Map<String, Object> trip = Map.of(
+					"title", sentence(random, 3),
+					"description", sentence(random, 12),
+					"location", WORDS[random.nextInt(WORDS.length)] + " province",
+					"tags", List.of(WORDS[random.nextInt(WORDS.length)], WORDS[random.nextInt(WORDS.length)]),
+					"latitude", 5 + random.nextDouble() * 15,
+					"longitude", 97 + random.nextDouble() * 8);
+			ndjson.writeBytes(objectMapper.writeValueAsBytes(trip));
+			ndjson.write('\n');
+		}
+		send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/trips/import"))
+				.timeout(Duration.ofMinutes(5))
+				.header("Authorization", "Bearer " + login(emails.get(0)))
+				.header("Content-Type", "application/x-ndjson")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(ndjson.toByteArray()))
+				.build());
+		return emails;
+	}
+
+	private void drive(List<String> emails, Map<String, Integer> mix, Duration duration) throws InterruptedException {
+		long deadline = System.nanoTime() + duration.toNanos();
+		int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+		int seededTrips = integer("seed-trips");
+		try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int u = 0; u < integer("users"); u++) {
+				String email = emails.get(u % emails.size());
+				users.submit(() -> {
+					String token = timed("POST /api/auth/login", () -> login(email));
+					while (System.nanoTime() < deadline) {
+						String operation = pick(mix, totalWeight);
+						switch (operation) {
+							case "login" -> token = timed("POST /api/auth/login", () -> login(email));
+							case "search" -> timedRequest("GET /api/trips?keyword",
+									get("/api/trips?limit=20&keyword=" + URLEncoder.encode(WORDS[random(WORDS.length)], StandardCharsets.UTF_8), null));
+							case "list" -> timedRequest("GET /api/trips", get("/api/trips?limit=20&page=" + random(20), null));
+							case "get" -> timedRequest("GET /api/trips/{id}", get("/api/trips/" + (1 + random(seededTrips)), null));
+							case "create" -> timedRequest("POST /api/trips", multipartTrip(token));
+							default -> throw new IllegalArgumentException("Unknown operation " + operation);
+						}
+					}
+					return null;
+				});
+			}
+		}
+	}
+
+	private String login(String email) throws IOException, InterruptedException {
+		HttpResponse<byte[]> response = send(json("/api/auth/login", Map.of("email", email, "password", PASSWORD), null));
+		JsonNode body = objectMapper.readTree(response.body());
+		return body.get("token").asText();
+	}
+
+	private HttpRequest multipartTrip(String token) {
+		String boundary = "----loadtest" + UUID.randomUUID();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		Map<String, String> fields = Map.of(
+				"title", sentence(random, 3),
+				"description", sentence(random, 12),
+				"location", WORDS[random.nextInt(WORDS.length)] + " province",
+				"tags", WORDS[random.nextInt(WORDS.length)]);
+		fields.forEach((name, value) -> body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\""
+				+ name + "\"\r\n\r\n" + value + "\r\n").getBytes(StandardCharsets.UTF_8)));
+		body.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"photos\"; filename=\"photo.jpg\"\r\n"
+				+ "Content-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+		body.writeBytes(photos.get(random.nextInt(photos.size())));
+		body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+		return HttpRequest.newBuilder(URI.create(baseUrl + "/api/trips"))
+				.header("Authorization", "Bearer " + token)
+				.header("Content-Type", "multipart/form-data; boundary=" + boundary)
+				.timeout(Duration.ofSeconds(60))
+				.POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+				.build();
+	}
+
+	// Distinct pixels per photo, so content-addressed storage only dedupes once the pool is cycled through
+	private void generatePhotos(int count) throws IOException {
+		Random random = new Random(7);
+		for (int i = 0; i < count; i++) {
+			BufferedImage image = new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB);
+			Graphics2D graphics = image.createGraphics();
+			for (int shape = 0; shape < 40; shape++) {
+				graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+				graphics.fillOval(random.nextInt(1600), random.nextInt(1200), 50 + random.nextInt(400), 50 + random.nextInt(400));
+			}
+			graphics.dispose();
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			ImageIO.write(image, "jpg", out);
+			photos.add(out.toByteArray());
+		}
+	}
+
+	private HttpRequest get(String path, String token) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET();
+		if (token != null) {
+			builder.header("Authorization", "Bearer " + token);
+		}
+		return builder.build();
+	}
+
+	private HttpRequest json(String path, Object body, String token) throws IOException {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(Duration.ofSeconds(30))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+		if (token != null) {
+			builder.header("Authorization", "Bearer " + token);
+		}
+		return builder.build();
+	}
+
+	private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+		HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+		if (response.statusCode() >= 400) {
+			throw new IOException(request.method() + " " + request.uri().getPath() + " returned " + response.statusCode()
+					+ ": " + new String(response.body(), StandardCharsets.UTF_8));
+		}
+		return response;
+	}
+
+	private void timedRequest(String endpoint, HttpRequest request) {
+		timed(endpoint, () -> send(request));
+	}
+
+	private <T> T timed(String endpoint, ThrowingSupplier<T> call) {
+		long start = System.nanoTime();
+		try {
+			T result = call.get();
+			report.record(endpoint, System.nanoTime() - start, true);
+			return result;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (Exception e) {
+			report.record(endpoint, System.nanoTime() - start, false);
+			return null;
+		}
+	}
+
+	private void writeResult(List<Map<String, Object>> rows, double seconds) throws IOException {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("options", new TreeMap<>(options));
+		result.put("seconds", Math.round(seconds * 10) / 10.0);
+		result.put("endpoints", rows);
+		Path output = Path.of(options.get("output"));
+		if (output.getParent() != null) {
+			Files.createDirectories(output.getParent());
+		}
+		objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), result);
+		System.out.printf("Results written to %s%n", output.toAbsolutePath());
+	}
+
+	private static Map<String, Integer> parseMix(String mix) {
+		return Arrays.stream(mix.split(","))
+				.map(entry -> entry.trim().split(":"))
+				.collect(Collectors.toMap(parts -> parts[0], parts -> Integer.parseInt(parts[1]), (a, b) -> b, LinkedHashMap::new));
+	}
+
+	private static String pick(Map<String, Integer> mix, int totalWeight) {
+		int roll = random(totalWeight);
+		for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+			roll -= entry.getValue();
+			if (roll < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("Empty mix");
+	}
+
+	private static String sentence(Random random, int words) {
+		return random.ints(words, 0, WORDS.length).mapToObj(i -> WORDS[i]).collect(Collectors.joining(" "));
+	}
+
+	private static int random(int bound) {
+		return ThreadLocalRandom.current().nextInt(bound);
+	}
+
+	private Duration duration(String option) {
+		return Duration.parse(options.get(option));
+	}
+
+	private int integer(String option) {
+		return Integer.parseInt(options.get(option));
+	}
+
+	@FunctionalInterface
+	private interface ThrowingSupplier<T> {
+		T get() throws Exception;
+	}
+}
@@ -0,0 +1,38 @@
+package com.techup.spring_tourist.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Lets clients ask for {@code application/cbor} or {@code application/x-jackson-smile} instead of
+ * JSON. Both mappers come from Boot's builder, so {@code spring.jackson.*} settings such as
+ * {@code default-property-inclusion=non_null} apply to every format alike. The converters are
+ * appended after JSON so {@code Accept: *}{@code /*} and missing Accept headers still get JSON.
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+  private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+  public BinaryFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+    this.objectMapperBuilder = objectMapperBuilder;
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    // The builder bean is prototype-scoped, so each format gets its own configured copy
+    converters.add(new MappingJackson2CborHttpMessageConverter(
+        objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+    converters.add(new MappingJackson2SmileHttpMessageConverter(
+        objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+  }
+}
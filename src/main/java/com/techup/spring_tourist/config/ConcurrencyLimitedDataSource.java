@@ -0,0 +1,112 @@
+package com.techup.spring_tourist.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out at most {@code permits} connections at a time, queueing callers fairly for up to
+ * {@code acquireTimeout} and rejecting immediately once {@code maxWaiting} are already queued.
+ * A permit is released when the connection is closed.
+ */
+class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+  private final Semaphore permits;
+  private final int maxWaiting;
+  private final Duration acquireTimeout;
+  private final AtomicInteger waiting = new AtomicInteger();
+
+  ConcurrencyLimitedDataSource(DataSource target, int permits, int maxWaiting, Duration acquireTimeout) {
+    super(target);
+    this.permits = new Semaphore(permits, true);
+    this.maxWaiting = maxWaiting;
+    this.acquireTimeout = acquireTimeout;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    return limited(() -> super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    return limited(() -> super.getConnection(username, password));
+  }
+
+  int availablePermits() {
+    return permits.availablePermits();
+  }
+
+  private void acquire() throws SQLException {
+    if (permits.tryAcquire()) {
+      return;
+    }
+    if (waiting.incrementAndGet() > maxWaiting) {
+      waiting.decrementAndGet();
+      throw new SQLTransientConnectionException("Too many callers waiting for a database connection");
+    }
+    try {
+      if (!permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+        throw new SQLTransientConnectionException(
+            "Timed out after " + acquireTimeout.toMillis() + " ms waiting for a database connection");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+    } finally {
+      waiting.decrementAndGet();
+    }
+  }
+
+  private Connection limited(ConnectionSupplier supplier) throws SQLException {
+    Connection connection;
+    try {
+      connection = supplier.get();
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+        (proxy, method, args) -> {
+          if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+            try {
+              connection.close();
+            } finally {
+              if (released.compareAndSet(false, true)) {
+                permits.release();
+              }
+            }
+            return null;
+          }
+          if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+            return proxy;
+          }
+          if ("isWrapperFor".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+            return true;
+          }
+          try {
+            return method.invoke(connection, args);
+          } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+          }
+        });
+  }
+
+  @FunctionalInterface
+  private interface ConnectionSupplier {
+    Connection get() throws SQLException;
+  }
+}
@@ -0,0 +1,98 @@
+package com.techup.spring_tourist.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Applies the Postgres-specific objects that {@code spring.jpa.hibernate.ddl-auto=update}
+ * cannot express: generated search columns, the indexes that serve them and the trip id sequence position.
+ * Runs after Hibernate has created/updated the tables and every statement is idempotent. The id sequence
+ * migration must succeed or startup fails; the rest only speed queries up and are skipped with a warning.
+ */
+@Slf4j
+@Component
+public class DatabaseSchemaInitializer {
+
+  private static final List<String> STATEMENTS = List.of(
+      "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+
+      // array_to_string is only STABLE, generated columns need IMMUTABLE expressions
+      "CREATE OR REPLACE FUNCTION trips_tags_text(tags text[]) RETURNS text " +
+          "LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$ SELECT coalesce(array_to_string(tags, ' '), '') $$",
+
+      "ALTER TABLE trips ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+          "setweight(to_tsvector('simple', coalesce(title, '')), 'A') || " +
+          "setweight(to_tsvector('simple', coalesce(location, '')), 'B') || " +
+          "setweight(to_tsvector('simple', trips_tags_text(tags)), 'B') || " +
+          "setweight(to_tsvector('simple', coalesce(description, '')), 'C')) STORED",
+
+      // Lower-cased concatenation for substring matches the tokenizer cannot split (e.g. Thai)
+      "ALTER TABLE trips ADD COLUMN IF NOT EXISTS search_text text GENERATED ALWAYS AS (" +
+          "lower(coalesce(title, '') || ' ' || coalesce(description, '') || ' ' || " +
+          "coalesce(location, '') || ' ' || trips_tags_text(tags))) STORED",
+
+      "CREATE INDEX IF NOT EXISTS idx_trips_search_vector ON trips USING GIN (search_vector)",
+      "CREATE INDEX IF NOT EXISTS idx_trips_search_text_trgm ON trips USING GIN (search_text gin_trgm_ops)",
+
+      // Normalized tags (trimmed, lower-cased, distinct) for the SQL tag filters; GIN serves @> and &&
+      "CREATE OR REPLACE FUNCTION trips_tags_lower(tags text[]) RETURNS text[] " +
+          "LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$ SELECT coalesce(array_agg(DISTINCT lower(btrim(t))) " +
+          "FILTER (WHERE btrim(t) <> ''), '{}') FROM unnest(tags) AS t $$",
+      "CREATE INDEX IF NOT EXISTS idx_trips_tags ON trips USING GIN (trips_tags_lower(tags))",
+
+      // Keyset pagination order: (created_at DESC, id DESC), globally and per author
+      "CREATE INDEX IF NOT EXISTS idx_trips_created_at_id ON trips (created_at DESC, id DESC)",
+      "CREATE INDEX IF NOT EXISTS idx_trips_author_created_at_id ON trips (author_id, created_at DESC, id DESC)",
+
+      // MAX(updated_at) versions the trip lists, and the in-memory indexes catch up on updated_at > ?
+      "CREATE INDEX IF NOT EXISTS idx_trips_updated_at ON trips (updated_at)",
+
+      // Bounding-box fallback for nearby queries while the in-memory geo index is building
+      "CREATE INDEX IF NOT EXISTS idx_trips_lat_lng ON trips (latitude, longitude) WHERE latitude IS NOT NULL AND longitude IS NOT NULL"
+  );
+
+  // Trip ids come from trips_seq; running without these would hand out ids that already exist
+  private static final List<String> REQUIRED_STATEMENTS = List.of(
+      "CREATE SEQUENCE IF NOT EXISTS trips_seq START WITH 1 INCREMENT BY 50",
+
+      // The old identity column (or serial default) would keep numbering outside Hibernate's blocks
+      "ALTER TABLE trips ALTER COLUMN id DROP IDENTITY IF EXISTS",
+      "ALTER TABLE trips ALTER COLUMN id DROP DEFAULT",
+
+      // Move trips_seq past ids handed out by the old identity column. Hibernate's pooled optimizer
+      // uses nextval as the top of a 50-id block, so the next value must be at least max(id) + 50
+      "SELECT setval('trips_seq', m.next_block, false) FROM (SELECT coalesce(max(id), 0) + 50 AS next_block FROM trips) m " +
+          "WHERE m.next_block > (SELECT CASE WHEN is_called THEN last_value + 50 ELSE last_value END FROM trips_seq)"
+  );
+
+  private final JdbcTemplate jdbcTemplate;
+
+  // Depending on the EntityManagerFactory guarantees Hibernate's schema update has already run
+  public DatabaseSchemaInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @PostConstruct
+  public void initialize() {
+    for (String statement : REQUIRED_STATEMENTS) {
+      try {
+        jdbcTemplate.execute(statement);
+      } catch (DataAccessException e) {
+        throw new IllegalStateException("Required schema statement failed: " + statement, e);
+      }
+    }
+    for (String statement : STATEMENTS) {
+      try {
+        jdbcTemplate.execute(statement);
+      } catch (DataAccessException e) {
+        log.warn("Schema statement failed, continuing: {} ({})", statement, e.getMostSpecificCause().getMessage());
+      }
+    }
+  }
+}
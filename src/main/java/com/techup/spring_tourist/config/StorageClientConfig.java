@@ -0,0 +1,46 @@
+package com.techup.spring_tourist.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class StorageClientConfig {
+
+  @Value("${supabase.http.max-connections:32}")
+  private int maxConnections;
+
+  @Value("${supabase.http.pending-acquire-timeout:PT30S}")
+  private Duration pendingAcquireTimeout;
+
+  @Value("${supabase.http.max-idle-time:PT30S}")
+  private Duration maxIdleTime;
+
+  @Value("${supabase.http.response-timeout:PT60S}")
+  private Duration responseTimeout;
+
+  // One pooled connection provider for all storage calls, so uploads reuse warm TLS connections
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider storageConnectionProvider() {
+    return ConnectionProvider.builder("supabase-storage")
+        .maxConnections(maxConnections)
+        .pendingAcquireTimeout(pendingAcquireTimeout)
+        .maxIdleTime(maxIdleTime)
+        .build();
+  }
+
+  @Bean
+  public WebClient storageWebClient(WebClient.Builder builder, ConnectionProvider storageConnectionProvider) {
+    HttpClient httpClient = HttpClient.create(storageConnectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10_000)
+        .responseTimeout(responseTimeout);
+    return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+  }
+}
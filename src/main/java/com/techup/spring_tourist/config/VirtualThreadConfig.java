@@ -0,0 +1,37 @@
+package com.techup.spring_tourist.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Support for {@code spring.threads.virtual.enabled}. Boot then runs Tomcat handlers, {@code @Async}
+ * and {@code @Scheduled} work on virtual threads. Thousands of those would otherwise all queue
+ * inside the small Hikari pool, so the DataSource is fronted by a fair, bounded limiter
+ * ({@code db.concurrency-limit.*}) that fails fast once too many callers are waiting.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+  @Bean
+  @ConditionalOnProperty(name = "db.concurrency-limit.enabled", havingValue = "true")
+  public static BeanPostProcessor dataSourceConcurrencyLimiter(Environment environment) {
+    int permits = environment.getProperty("db.concurrency-limit.permits", Integer.class, 10);
+    int maxWaiting = environment.getProperty("db.concurrency-limit.max-waiting", Integer.class, 200);
+    Duration acquireTimeout = environment.getProperty("db.concurrency-limit.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+          return new ConcurrencyLimitedDataSource(dataSource, permits, maxWaiting, acquireTimeout);
+        }
+        return bean;
+      }
+    };
+  }
+}
@@ -0,0 +1,70 @@
+package com.techup.spring_tourist.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event while virtual threads are enabled:
+ * each virtual thread that blocked while pinned to its carrier (inside {@code synchronized} or a
+ * native frame) for longer than {@code threads.virtual.pinned-threshold} is logged with the top
+ * of its stack and counted in {@code jvm.threads.virtual.pinned}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+  private static final int LOGGED_FRAMES = 8;
+
+  @Value("${threads.virtual.pinned-threshold:PT20MS}")
+  private Duration threshold;
+
+  private final Counter pinned;
+  private RecordingStream stream;
+
+  public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+    this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+        .description("Virtual threads that blocked while pinned to their carrier thread")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void start() {
+    stream = new RecordingStream();
+    stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+    stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+    stream.startAsync();
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (stream != null) {
+      stream.close();
+    }
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinned.increment();
+    String frames = event.getStackTrace() == null ? "(no stack trace)" : event.getStackTrace().getFrames().stream()
+        .limit(LOGGED_FRAMES)
+        .map(VirtualThreadPinningMonitor::describe)
+        .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+    log.warn("Virtual thread pinned for {} ms{}", event.getDuration().toMillis(), frames);
+  }
+
+  private static String describe(RecordedFrame frame) {
+    return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+  }
+}
@@ -3,10 +3,21 @@ package com.techup.spring_tourist.config;
 import org.springframework.context.annotation.Configuration;
 import com.techup.spring_tourist.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import jakarta.servlet.http.HttpServletResponse;
@@ -23,6 +34,27 @@ public class WebConfig {
 
   private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+  // Actuator has its own chain: health stays public for load balancers, everything else (the Prometheus
+  // scrape included) takes HTTP Basic with the scraper's credentials. Without a password only health answers
+  @Bean
+  @Order(1)
+  public SecurityFilterChain actuatorFilterChain(
+      HttpSecurity http,
+      @Value("${auth.scraper.username:prometheus}") String username,
+      @Value("${auth.scraper.password:}") String password) throws Exception {
+    http
+        .securityMatcher(EndpointRequest.toAnyEndpoint())
+        .csrf(csrf -> csrf.disable())
+        .authorizeHttpRequests(auth -> auth
+            .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+            .anyRequest().hasRole("SCRAPER")
+        )
+        .httpBasic(Customizer.withDefaults())
+        .authenticationManager(scraperAuthenticationManager(username, password))
+        .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+    return http.build();
+  }
+
   @Bean
   public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     http
@@ -32,6 +64,7 @@ public class WebConfig {
             .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
             .requestMatchers("/api/auth/**").permitAll()
             .requestMatchers("/api/files/**").permitAll()
+            .requestMatchers(HttpMethod.GET, "/api/photos/**").permitAll()
             .requestMatchers(HttpMethod.GET, "/api/trips/my-trips").authenticated()
             .requestMatchers(HttpMethod.GET, "/api/trips/**").permitAll()
             .requestMatchers(HttpMethod.POST, "/api/trips/**").authenticated()
@@ -65,7 +98,8 @@ public class WebConfig {
 
     config.setAllowedOriginPatterns(List.of("*"));
     config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
-    config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept"));
+    config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "If-None-Match", "If-Modified-Since"));
+    config.setExposedHeaders(List.of("ETag", "Last-Modified"));
     config.setAllowCredentials(true);
 
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -73,9 +107,22 @@ public class WebConfig {
     return source;
   }
 
+  // Cost 4: the scraper authenticates on every scrape, and its password is a generated secret
+  private static AuthenticationManager scraperAuthenticationManager(String username, String password) {
+    BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+    InMemoryUserDetailsManager scrapers = new InMemoryUserDetailsManager();
+    if (!password.isBlank()) {
+      scrapers.createUser(User.withUsername(username).password(encoder.encode(password)).roles("SCRAPER").build());
+    }
+    DaoAuthenticationProvider provider = new DaoAuthenticationProvider(scrapers);
+    provider.setPasswordEncoder(encoder);
+    return new ProviderManager(provider);
+  }
+
+  // Raising or lowering the strength re-hashes each user's password at their next login
   @Bean
-  public BCryptPasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public BCryptPasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt-strength:10}") int strength) {
+    return new BCryptPasswordEncoder(strength);
   }
 }
 
@@ -9,18 +9,18 @@ import org.springframework.web.multipart.MultipartFile;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import com.techup.spring_tourist.service.SupabaseStorageService;
+import com.techup.spring_tourist.service.StorageService;
 
 @RestController
 @RequestMapping("/api/files")
 @RequiredArgsConstructor
 public class FileUploadController {
 
-  private final SupabaseStorageService supabaseStorageService;
+  private final StorageService storageService;
 
   @PostMapping("/upload")
   public ResponseEntity<Map<String, String>> upload(@RequestParam("file") MultipartFile file) {
-    String url = supabaseStorageService.uploadFile(file);
+    String url = storageService.uploadFile(file);
     return ResponseEntity.ok(Map.of("url", url));
   }
 
@@ -36,7 +36,7 @@ public class FileUploadController {
           .body(Map.of("error", List.of("At least 1 file is required")));
     }
 
-    String[] urls = supabaseStorageService.uploadFiles(files);
+    String[] urls = storageService.uploadFiles(files);
     return ResponseEntity.ok(Map.of("urls", Arrays.asList(urls)));
   }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.techup.spring_tourist.controller;
+
+import com.techup.spring_tourist.service.LocalStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves photos from the local storage backend. Names are content hashes, so responses are cached
+ * as immutable and the name doubles as the ETag. Bodies go out with Tomcat's sendfile when the
+ * connector offers it, otherwise through {@link FileChannel#transferTo}; a single byte range is
+ * honoured, several ranges get the whole file.
+ */
+@RestController
+@RequestMapping("/api/photos")
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class PhotoController {
+
+  static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private final LocalStorageService localStorageService;
+
+  @Value("${storage.local.max-age:P365D}")
+  private Duration maxAge;
+
+  public PhotoController(LocalStorageService localStorageService) {
+    this.localStorageService = localStorageService;
+  }
+
+  @GetMapping("/{name}")
+  public void getPhoto(@PathVariable String name, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    Path file = localStorageService.resolve(name)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Photo not found"));
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long length = channel.size();
+      String etag = "\"" + name + "\"";
+      response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(maxAge).cachePublic().immutable().getHeaderValue());
+      response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+      if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+        return;
+      }
+
+      long start = 0;
+      long end = length - 1;
+      List<HttpRange> ranges = requestedRanges(request, etag);
+      if (ranges.size() == 1) {
+        start = ranges.get(0).getRangeStart(length);
+        end = ranges.get(0).getRangeEnd(length);
+        if (start >= length || start > end) {
+          response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+          response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+          return;
+        }
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+      }
+
+      response.setContentType(MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+      response.setContentLengthLong(end - start + 1);
+      if ("HEAD".equals(request.getMethod())) {
+        return;
+      }
+      if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+        // Tomcat writes the file straight from the page cache to the socket once this handler returns
+        request.setAttribute(SENDFILE_FILENAME, file.toString());
+        request.setAttribute(SENDFILE_START, start);
+        request.setAttribute(SENDFILE_END, end + 1);
+        return;
+      }
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+      for (long position = start; position <= end; ) {
+        position += channel.transferTo(position, end + 1 - position, out);
+      }
+    } catch (NoSuchFileException e) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Photo not found");
+    }
+  }
+
+  // A Range is ignored when malformed, or when If-Range names another version
+  private static List<HttpRange> requestedRanges(HttpServletRequest request, String etag) {
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange != null && !ifRange.equals(etag)) {
+      return List.of();
+    }
+    try {
+      return HttpRange.parseRanges(request.getHeader(HttpHeaders.RANGE));
+    } catch (IllegalArgumentException e) {
+      return List.of();
+    }
+  }
+}
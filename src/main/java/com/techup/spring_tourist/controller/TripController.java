@@ -1,29 +1,80 @@
 package com.techup.spring_tourist.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.techup.spring_tourist.dto.NearbyTrip;
 import com.techup.spring_tourist.dto.PaginatedResponse;
+import com.techup.spring_tourist.dto.Suggestion;
+import com.techup.spring_tourist.dto.TagCount;
+import com.techup.spring_tourist.dto.TripImportResult;
 import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.service.TripImportService;
+import com.techup.spring_tourist.service.TripResponseCache;
 import com.techup.spring_tourist.service.TripService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/api/trips")
 public class TripController {
     private final TripService tripService;
+    private final TripImportService tripImportService;
+    private final TripResponseCache tripResponseCache;
 
-    public TripController(TripService tripService) {
+    @Value("${trips.geo.max-radius-km:500}")
+    private double maxRadiusKm;
+
+    @Value("${trips.suggest.max-age:PT1M}")
+    private Duration suggestMaxAge;
+
+    public TripController(TripService tripService, TripImportService tripImportService,
+                          TripResponseCache tripResponseCache) {
         this.tripService = tripService;
+        this.tripImportService = tripImportService;
+        this.tripResponseCache = tripResponseCache;
     }
 
+    @JsonView(Trip.Summary.class)
     @GetMapping
     public ResponseEntity<?> getAllTrips(
             @RequestParam(value = "keyword", required = false) String keyword,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "includeTotal", defaultValue = "true") boolean includeTotal,
+            @RequestParam(value = "tags", required = false) List<String> tags,
+            @RequestParam(value = "tagMatch", defaultValue = "all") String tagMatch,
+            ServletWebRequest request) {
+
+        boolean filterByTags = tags != null && !tags.isEmpty();
+        if (filterByTags && keyword != null && !keyword.trim().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "keyword and tags cannot be combined"));
+        }
+        if (!"all".equals(tagMatch) && !"any".equals(tagMatch)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "tagMatch must be all or any"));
+        }
+
+        String etag = eTag(request, tripService.getTripsVersion(), keyword, page, limit, cursor, includeTotal, tags, tagMatch);
+        if (notModified(request, etag, null, CacheControl.noCache())) {
+            return null;
+        }
         
         if (limit <= 0) {
             limit = 10;
@@ -32,20 +83,67 @@ public class TripController {
             page = 0;
         }
         
+        // Tag filters page by number only; the index counts every match, so the total is always included
+        if (filterByTags) {
+            return ResponseEntity.ok(tripService.getTripsByTags(tags, "all".equals(tagMatch), page, limit));
+        }
+
         if (keyword != null && !keyword.trim().isEmpty()) {
-            PaginatedResponse<Trip> response = tripService.searchTrips(keyword, page, limit);
+            PaginatedResponse<Trip> response = tripService.searchTrips(keyword, page, limit, includeTotal);
             return ResponseEntity.ok(response);
         }
+
+        if (cursor != null) {
+            return ResponseEntity.ok(tripService.getAllTrips(cursor, clampCursorLimit(limit)));
+        }
         
-        PaginatedResponse<Trip> response = tripService.getAllTrips(page, limit);
+        PaginatedResponse<Trip> response = tripService.getAllTrips(page, limit, includeTotal);
         return ResponseEntity.ok(response);
     }
 
+    // Facet counts for tag filters: the most used tags, optionally among trips already carrying ?tags=
+    @GetMapping("/tags")
+    public ResponseEntity<?> getTagCounts(
+            @RequestParam(value = "tags", required = false) List<String> tags,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            ServletWebRequest request) {
+        String etag = eTag(request, tripService.getTripsVersion(), "tags", tags, limit);
+        if (notModified(request, etag, null, CacheControl.noCache())) {
+            return null;
+        }
+        List<TagCount> counts = tripService.getTagCounts(tags, limit <= 0 ? 20 : Math.min(limit, 500));
+        return ResponseEntity.ok(counts);
+    }
+
+    // Typeahead for the search box; answers come from memory, and a minute-old suggestion is fine to cache
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "kind", required = false) String kind,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (kind != null && !"location".equals(kind) && !"tag".equals(kind)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "kind must be location or tag"));
+        }
+        List<Suggestion> suggestions = tripService.suggest(prefix, kind, limit <= 0 ? 10 : limit);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(suggestMaxAge).cachePublic())
+                .body(suggestions);
+    }
+
+    @JsonView(Trip.Summary.class)
     @GetMapping("/my-trips")
     public ResponseEntity<?> getMyTrips(
             Authentication authentication,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "includeTotal", defaultValue = "true") boolean includeTotal,
+            ServletWebRequest request) {
+        String etag = eTag(request, tripService.getTripsVersion(), authentication.getName(), page, limit, cursor, includeTotal);
+        if (notModified(request, etag, null, CacheControl.noCache().cachePrivate())) {
+            return null;
+        }
         try {
             if (limit <= 0) {
                 limit = 10;
@@ -55,16 +153,77 @@ public class TripController {
             }
             
             String userEmail = authentication.getName();
-            PaginatedResponse<Trip> response = tripService.getTripsByUserEmail(userEmail, page, limit);
+            if (cursor != null) {
+                return ResponseEntity.ok(tripService.getTripsByUserEmail(userEmail, cursor, clampCursorLimit(limit)));
+            }
+            PaginatedResponse<Trip> response = tripService.getTripsByUserEmail(userEmail, page, limit, includeTotal);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @JsonView(Trip.Summary.class)
+    @GetMapping("/nearby")
+    public ResponseEntity<?> getNearbyTrips(
+            @RequestParam("lat") double latitude,
+            @RequestParam("lng") double longitude,
+            @RequestParam(value = "radiusKm", defaultValue = "10") double radiusKm,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+
+        if (!isValidLatitude(latitude) || !isValidLongitude(longitude)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "lat must be within [-90, 90] and lng within [-180, 180]"));
+        }
+        if (!(radiusKm > 0) || radiusKm > maxRadiusKm) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "radiusKm must be greater than 0 and at most " + maxRadiusKm));
+        }
+
+        List<NearbyTrip> trips = tripService.findNearbyTrips(latitude, longitude, radiusKm, clampGeoLimit(limit));
+        return ResponseEntity.ok(trips);
+    }
+
+    @JsonView(Trip.Summary.class)
+    @GetMapping("/within")
+    public ResponseEntity<?> getTripsWithin(
+            @RequestParam("minLat") double minLat,
+            @RequestParam("minLng") double minLng,
+            @RequestParam("maxLat") double maxLat,
+            @RequestParam("maxLng") double maxLng,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+
+        if (!isValidLatitude(minLat) || !isValidLatitude(maxLat) || minLat > maxLat
+                || !isValidLongitude(minLng) || !isValidLongitude(maxLng)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Invalid bounding box"));
+        }
+
+        List<NearbyTrip> trips = tripService.findTripsWithin(minLat, maxLat, minLng, maxLng, clampGeoLimit(limit));
+        return ResponseEntity.ok(trips);
+    }
+
+    // A matching If-None-Match is answered from the trip's version alone, before the trip is loaded.
+    // JSON is written from pre-encoded bytes; other formats go through the message converters
     @GetMapping("/{id}")
-    public Trip getTripById(@PathVariable Long id) {
-        return tripService.getTripById(id);
+    public ResponseEntity<?> getTripById(@PathVariable Long id, ServletWebRequest request) throws IOException {
+        OffsetDateTime version = tripService.getTripVersion(id).orElse(null);
+        boolean gzip = TripResponseCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        if (version == null) {
+            return ResponseEntity.ok(tripService.getTripById(id));
+        }
+        if (notModified(request, eTag(request, id, version.toInstant(), gzip),
+                version.toInstant().toEpochMilli(), CacheControl.noCache())) {
+            return null;
+        }
+        if (TripResponseCache.servesJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            TripResponseCache.Encoded encoded = tripResponseCache.get(id, version);
+            if (encoded != null) {
+                writeJson(request.getResponse(), encoded, gzip);
+                return null;
+            }
+        }
+        return ResponseEntity.ok(tripService.getTripById(id));
     }
 
     @PostMapping(consumes = "multipart/form-data")
@@ -126,6 +285,13 @@ public class TripController {
         return tripService.createTrip(trip);
     }
 
+    // Streams a JSON array or NDJSON body; rows that fail are listed in the result, the rest are saved
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/json"})
+    public ResponseEntity<?> importTrips(HttpServletRequest request, Authentication authentication) throws IOException {
+        TripImportResult result = tripImportService.importTrips(request.getInputStream(), authentication.getName());
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping(value = "/{id}", consumes = "multipart/form-data")
     public ResponseEntity<?> updateTrip(
             @PathVariable Long id,
@@ -192,4 +358,53 @@ public class TripController {
         tripService.deleteTrip(id);
     }
 
+    /**
+     * Strong ETag over the resource version and the request parameters. The Accept header is
+     * part of it because JSON, CBOR and Smile renderings of the same version differ byte for byte.
+     */
+    static String eTag(ServletWebRequest request, Object... parts) {
+        StringBuilder key = new StringBuilder(String.valueOf(request.getHeader(HttpHeaders.ACCEPT)));
+        for (Object part : parts) {
+            key.append('\u0000').append(part);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // Sets the validators on every response; true means a 304 has been written and nothing else should be
+    private static boolean notModified(ServletWebRequest request, String etag, Long lastModified, CacheControl cacheControl) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return lastModified != null ? request.checkNotModified(etag, lastModified) : request.checkNotModified(etag);
+    }
+
+    private static void writeJson(HttpServletResponse response, TripResponseCache.Encoded encoded, boolean gzip)
+            throws IOException {
+        byte[] body = gzip && encoded.gzip() != null ? encoded.gzip() : encoded.json();
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        if (body != encoded.json()) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean isValidLatitude(double latitude) {
+        return latitude >= -90 && latitude <= 90;
+    }
+
+    private static boolean isValidLongitude(double longitude) {
+        return longitude >= -180 && longitude <= 180;
+    }
+
+    private static int clampGeoLimit(int limit) {
+        return limit <= 0 ? 20 : Math.min(limit, 200);
+    }
+
+    private static int clampCursorLimit(int limit) {
+        return limit <= 0 ? 10 : Math.min(limit, TripService.MAX_CURSOR_LIMIT);
+    }
 }
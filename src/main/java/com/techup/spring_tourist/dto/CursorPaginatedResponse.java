@@ -0,0 +1,42 @@
+package com.techup.spring_tourist.dto;
+
+import java.util.List;
+
+public class CursorPaginatedResponse<T> {
+    private List<T> data;
+    private int limit;
+    private String nextCursor;
+
+    public CursorPaginatedResponse() {
+    }
+
+    public CursorPaginatedResponse(List<T> data, int limit, String nextCursor) {
+        this.data = data;
+        this.limit = limit;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getData() {
+        return data;
+    }
+
+    public void setData(List<T> data) {
+        this.data = data;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
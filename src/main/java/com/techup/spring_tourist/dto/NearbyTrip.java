@@ -0,0 +1,12 @@
+package com.techup.spring_tourist.dto;
+
+import com.techup.spring_tourist.entity.Trip;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class NearbyTrip {
+    private Trip trip;
+    private double distanceKm;
+}
@@ -6,8 +6,10 @@ public class PaginatedResponse<T> {
     private List<T> data;
     private int page;
     private int limit;
-    private long total;
-    private int totalPages;
+    private Long total;
+    private Integer totalPages;
+    private Boolean totalApproximate;
+    private Boolean hasNext;
 
     public PaginatedResponse() {
     }
@@ -18,6 +20,15 @@ public class PaginatedResponse<T> {
         this.limit = limit;
         this.total = total;
         this.totalPages = totalPages;
+        this.hasNext = page + 1 < totalPages;
+    }
+
+    // Without a total; total and totalPages are left null and omitted from the JSON
+    public PaginatedResponse(List<T> data, int page, int limit, boolean hasNext) {
+        this.data = data;
+        this.page = page;
+        this.limit = limit;
+        this.hasNext = hasNext;
     }
 
     public List<T> getData() {
@@ -44,19 +55,35 @@ public class PaginatedResponse<T> {
         this.limit = limit;
     }
 
-    public long getTotal() {
+    public Long getTotal() {
         return total;
     }
 
-    public void setTotal(long total) {
+    public void setTotal(Long total) {
         this.total = total;
     }
 
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return totalPages;
     }
 
-    public void setTotalPages(int totalPages) {
+    public void setTotalPages(Integer totalPages) {
         this.totalPages = totalPages;
     }
+
+    public Boolean getTotalApproximate() {
+        return totalApproximate;
+    }
+
+    public void setTotalApproximate(Boolean totalApproximate) {
+        this.totalApproximate = totalApproximate;
+    }
+
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
 }
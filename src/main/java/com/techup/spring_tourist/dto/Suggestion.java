@@ -0,0 +1,12 @@
+package com.techup.spring_tourist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class Suggestion {
+    private String text;
+    private String kind;
+    private long count;
+}
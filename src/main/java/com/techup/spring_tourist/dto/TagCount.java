@@ -0,0 +1,11 @@
+package com.techup.spring_tourist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TagCount {
+    private String tag;
+    private long count;
+}
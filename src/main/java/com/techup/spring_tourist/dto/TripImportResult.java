@@ -0,0 +1,23 @@
+package com.techup.spring_tourist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TripImportResult {
+    private long imported;
+    private long failed;
+    // Capped at trips.import.max-reported-errors; failed still counts every rejected row
+    private List<RowError> errors;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        // 1-based position of the row in the request body
+        private long row;
+        private String error;
+    }
+}
@@ -0,0 +1,39 @@
+package com.techup.spring_tourist.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Photos that are in storage (or about to be) but not yet known to be referenced by a trip.
+ * Rows are removed once the trip that uses them is committed; anything older than the grace
+ * period is reconciled by {@code PendingUploadService}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "pending_uploads", indexes = @Index(name = "idx_pending_uploads_created_at", columnList = "created_at"))
+public class PendingUpload {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "photo_urls", nullable = false, columnDefinition = "TEXT[]")
+    private String[] photoUrls = new String[0];
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    public PendingUpload(String[] photoUrls) {
+        this.photoUrls = photoUrls;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = OffsetDateTime.now();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.techup.spring_tourist.entity;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
 import lombok.*;
 import java.time.OffsetDateTime;
 
@@ -12,8 +15,15 @@ import java.time.OffsetDateTime;
 @AllArgsConstructor
 @Table(name = "trips")
 public class Trip {
+    /** JSON views: list items carry thumbnails only, a single trip every photo variant. */
+    public interface Summary {}
+
+    public interface Detail extends Summary {}
+
+    // Pooled sequence instead of IDENTITY so inserts can be JDBC-batched; each nextval reserves 50 ids
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trips_seq")
+    @SequenceGenerator(name = "trips_seq", sequenceName = "trips_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "title", nullable = false, columnDefinition = "TEXT")
@@ -22,9 +32,20 @@ public class Trip {
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
+    @JsonView(Detail.class)
     @Column(name = "photos", nullable = false, columnDefinition = "TEXT[]")
     private String[] photos = new String[0];
 
+    // Parallel to photos and written only by the server; null for trips saved before variants existed
+    @JsonIgnore
+    @Column(name = "thumbnails", columnDefinition = "TEXT[]")
+    private String[] thumbnails;
+
+    @JsonView(Detail.class)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "medium_photos", columnDefinition = "TEXT[]")
+    private String[] mediumPhotos;
+
     @Column(name = "tags", nullable = false, columnDefinition = "TEXT[]")
     private String[] tags = new String[0];
 
@@ -48,6 +69,12 @@ public class Trip {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    // Trips without variants show their originals, as undecodable uploads do
+    @JsonProperty("thumbnails")
+    public String[] thumbnailsOrPhotos() {
+        return thumbnails != null ? thumbnails : photos;
+    }
+
     @PrePersist
     protected void onCreate() {
         OffsetDateTime now = OffsetDateTime.now();
@@ -0,0 +1,38 @@
+package com.techup.spring_tourist.event;
+
+import com.techup.spring_tourist.entity.Trip;
+import lombok.Getter;
+
+/**
+ * Published by {@code TripService} inside the write transaction. In-memory views of the
+ * trips table listen with {@code @TransactionalEventListener} so they only see committed changes.
+ */
+@Getter
+public class TripChangedEvent {
+
+  private final Long tripId;
+  private final Trip trip;
+  private final boolean created;
+
+  private TripChangedEvent(Long tripId, Trip trip, boolean created) {
+    this.tripId = tripId;
+    this.trip = trip;
+    this.created = created;
+  }
+
+  public static TripChangedEvent created(Trip trip) {
+    return new TripChangedEvent(trip.getId(), trip, true);
+  }
+
+  public static TripChangedEvent updated(Trip trip) {
+    return new TripChangedEvent(trip.getId(), trip, false);
+  }
+
+  public static TripChangedEvent deleted(Long tripId) {
+    return new TripChangedEvent(tripId, null, false);
+  }
+
+  public boolean isDeleted() {
+    return trip == null;
+  }
+}
@@ -0,0 +1,20 @@
+package com.techup.spring_tourist.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.techup.spring_tourist.entity.PendingUpload;
+
+public interface PendingUploadRepository extends JpaRepository<PendingUpload, Long> {
+    List<PendingUpload> findByCreatedAtBeforeOrderByCreatedAtAsc(OffsetDateTime createdAt, Limit limit);
+
+    // Content-addressed photos can be shared, so another upload may still be about to use them
+    @Query(value = "SELECT DISTINCT u.url FROM pending_uploads p CROSS JOIN LATERAL unnest(p.photo_urls) AS u(url) " +
+           "WHERE p.id <> :id AND u.url IN (:urls)",
+           nativeQuery = true)
+    List<String> findUrlsPendingElsewhere(@Param("id") Long id, @Param("urls") Collection<String> urls);
+}
@@ -0,0 +1,13 @@
+package com.techup.spring_tourist.repository;
+
+import java.time.OffsetDateTime;
+
+public interface TripLocationSource {
+    Long getId();
+
+    Double getLatitude();
+
+    Double getLongitude();
+
+    OffsetDateTime getUpdatedAt();
+}
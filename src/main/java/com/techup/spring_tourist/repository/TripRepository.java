@@ -1,39 +1,161 @@
 package com.techup.spring_tourist.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import com.techup.spring_tourist.entity.Trip;
 import com.techup.spring_tourist.entity.User;
+import jakarta.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
+// List queries fetch the author in the same statement: it is serialized with every trip
 public interface TripRepository extends JpaRepository<Trip, Long> {
+    @Override
+    @EntityGraph(attributePaths = "author")
+    List<Trip> findAll();
+
+    @EntityGraph(attributePaths = "author")
+    Optional<Trip> findWithAuthorById(Long id);
+
+    @EntityGraph(attributePaths = "author")
+    List<Trip> findWithAuthorByIdIn(Collection<? extends Long> ids);
+
+    @EntityGraph(attributePaths = "author")
     List<Trip> findByAuthorOrderByCreatedAtDesc(User author);
 
+    @EntityGraph(attributePaths = "author")
     Page<Trip> findByAuthorOrderByCreatedAtDesc(User author, Pageable pageable);
 
-    @Query(value = "SELECT * FROM trips WHERE " +
-           "LOWER(title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(location) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "EXISTS (SELECT 1 FROM unnest(tags) AS tag WHERE LOWER(tag) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
-           "ORDER BY created_at DESC", 
-           nativeQuery = true)
-    List<Trip> findByKeyword(@Param("keyword") String keyword);
-
-    @Query(value = "SELECT * FROM trips WHERE " +
-           "LOWER(title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(location) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "EXISTS (SELECT 1 FROM unnest(tags) AS tag WHERE LOWER(tag) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
-           "ORDER BY created_at DESC",
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT t FROM Trip t")
+    Slice<Trip> findTripSlice(Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT t FROM Trip t WHERE t.author = :author ORDER BY t.createdAt DESC")
+    Slice<Trip> findTripSliceByAuthor(@Param("author") User author, Pageable pageable);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT t FROM Trip t ORDER BY t.createdAt DESC, t.id DESC")
+    List<Trip> findFirstKeysetPage(Limit limit);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT t FROM Trip t WHERE (t.createdAt, t.id) < (:createdAt, :id) ORDER BY t.createdAt DESC, t.id DESC")
+    List<Trip> findKeysetPageAfter(@Param("createdAt") OffsetDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT t FROM Trip t WHERE t.author = :author ORDER BY t.createdAt DESC, t.id DESC")
+    List<Trip> findFirstKeysetPageByAuthor(@Param("author") User author, Limit limit);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("SELECT t FROM Trip t WHERE t.author = :author AND (t.createdAt, t.id) < (:createdAt, :id) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Trip> findKeysetPageByAuthorAfter(@Param("author") User author, @Param("createdAt") OffsetDateTime createdAt,
+                                           @Param("id") Long id, Limit limit);
+
+    // Native queries cannot use an entity graph; search returns ranked ids and callers hydrate them in one query
+    @Query(value = "SELECT id FROM trips WHERE search_vector @@ to_tsquery('simple', :query) " +
+           "ORDER BY ts_rank_cd(search_vector, to_tsquery('simple', :query)) DESC, created_at DESC",
+           countQuery = "SELECT COUNT(*) FROM trips WHERE search_vector @@ to_tsquery('simple', :query)",
+           nativeQuery = true)
+    Page<Long> searchRankedIds(@Param("query") String query, Pageable pageable);
+
+    @Query(value = "SELECT id FROM trips WHERE " +
+           "search_vector @@ to_tsquery('simple', :query) OR search_text LIKE :pattern " +
+           "ORDER BY ts_rank_cd(search_vector, to_tsquery('simple', :query)) DESC, created_at DESC",
            countQuery = "SELECT COUNT(*) FROM trips WHERE " +
-           "LOWER(title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(location) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "EXISTS (SELECT 1 FROM unnest(tags) AS tag WHERE LOWER(tag) LIKE LOWER(CONCAT('%', :keyword, '%')))",
+           "search_vector @@ to_tsquery('simple', :query) OR search_text LIKE :pattern",
+           nativeQuery = true)
+    Page<Long> searchRankedOrSubstringIds(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "SELECT id FROM trips WHERE search_vector @@ to_tsquery('simple', :query) " +
+           "ORDER BY ts_rank_cd(search_vector, to_tsquery('simple', :query)) DESC, created_at DESC",
+           nativeQuery = true)
+    Slice<Long> searchRankedIdsSlice(@Param("query") String query, Pageable pageable);
+
+    @Query(value = "SELECT id FROM trips WHERE " +
+           "search_vector @@ to_tsquery('simple', :query) OR search_text LIKE :pattern " +
+           "ORDER BY ts_rank_cd(search_vector, to_tsquery('simple', :query)) DESC, created_at DESC",
+           nativeQuery = true)
+    Slice<Long> searchRankedOrSubstringIdsSlice(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, t.location AS location, " +
+           "t.tags AS tags, t.updatedAt AS updatedAt FROM Trip t ORDER BY t.createdAt, t.id")
+    Stream<TripSearchSource> streamSearchSources();
+
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, t.location AS location, " +
+           "t.tags AS tags, t.updatedAt AS updatedAt FROM Trip t WHERE t.updatedAt > :since ORDER BY t.createdAt, t.id")
+    List<TripSearchSource> findSearchSourcesUpdatedAfter(@Param("since") OffsetDateTime since);
+
+    @Query("SELECT MAX(t.updatedAt) FROM Trip t")
+    OffsetDateTime findMaxUpdatedAt();
+
+    @Query("SELECT t.updatedAt FROM Trip t WHERE t.id = :id")
+    Optional<OffsetDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id AS id, t.latitude AS latitude, t.longitude AS longitude, t.updatedAt AS updatedAt FROM Trip t " +
+           "WHERE t.latitude IS NOT NULL AND t.longitude IS NOT NULL")
+    Stream<TripLocationSource> streamLocationSources();
+
+    @Query("SELECT t.id AS id, t.latitude AS latitude, t.longitude AS longitude, t.updatedAt AS updatedAt FROM Trip t " +
+           "WHERE t.updatedAt > :since")
+    List<TripLocationSource> findLocationSourcesUpdatedAfter(@Param("since") OffsetDateTime since);
+
+    @Query("SELECT COUNT(t) FROM Trip t WHERE t.latitude IS NOT NULL AND t.longitude IS NOT NULL")
+    long countWithLocation();
+
+    @Query("SELECT t.id AS id, t.latitude AS latitude, t.longitude AS longitude, t.updatedAt AS updatedAt FROM Trip t " +
+           "WHERE t.latitude BETWEEN :minLat AND :maxLat AND t.longitude BETWEEN :minLng AND :maxLng")
+    List<TripLocationSource> findLocationSourcesWithin(@Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                                       @Param("minLng") double minLng, @Param("maxLng") double maxLng);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.id AS id, t.tags AS tags, t.updatedAt AS updatedAt FROM Trip t ORDER BY t.createdAt, t.id")
+    Stream<TripTagSource> streamTagSources();
+
+    @Query("SELECT t.id AS id, t.tags AS tags, t.updatedAt AS updatedAt FROM Trip t WHERE t.updatedAt > :since " +
+           "ORDER BY t.createdAt, t.id")
+    List<TripTagSource> findTagSourcesUpdatedAfter(@Param("since") OffsetDateTime since);
+
+    // Tag filters and counts while the tag index is building; trips_tags_lower(tags) is GIN-indexed by idx_trips_tags
+    @Query(value = "SELECT id FROM trips WHERE trips_tags_lower(tags) @> CAST(ARRAY[:tags] AS text[]) " +
+           "ORDER BY created_at DESC, id DESC",
+           countQuery = "SELECT COUNT(*) FROM trips WHERE trips_tags_lower(tags) @> CAST(ARRAY[:tags] AS text[])",
+           nativeQuery = true)
+    Page<Long> findIdsWithAllTags(@Param("tags") Collection<String> tags, Pageable pageable);
+
+    @Query(value = "SELECT id FROM trips WHERE trips_tags_lower(tags) && CAST(ARRAY[:tags] AS text[]) " +
+           "ORDER BY created_at DESC, id DESC",
+           countQuery = "SELECT COUNT(*) FROM trips WHERE trips_tags_lower(tags) && CAST(ARRAY[:tags] AS text[])",
+           nativeQuery = true)
+    Page<Long> findIdsWithAnyTag(@Param("tags") Collection<String> tags, Pageable pageable);
+
+    @Query(value = "SELECT g.tag AS tag, COUNT(*) AS count FROM trips t CROSS JOIN LATERAL unnest(trips_tags_lower(t.tags)) AS g(tag) " +
+           "GROUP BY g.tag ORDER BY count DESC, g.tag LIMIT :limit",
+           nativeQuery = true)
+    List<TripTagCount> countTags(@Param("limit") int limit);
+
+    @Query(value = "SELECT g.tag AS tag, COUNT(*) AS count FROM trips t CROSS JOIN LATERAL unnest(trips_tags_lower(t.tags)) AS g(tag) " +
+           "WHERE trips_tags_lower(t.tags) @> CAST(ARRAY[:within] AS text[]) AND g.tag NOT IN (:within) " +
+           "GROUP BY g.tag ORDER BY count DESC, g.tag LIMIT :limit",
+           nativeQuery = true)
+    List<TripTagCount> countTagsWithin(@Param("within") Collection<String> within, @Param("limit") int limit);
+
+    @Query(value = "SELECT DISTINCT p.url FROM trips t CROSS JOIN LATERAL " +
+           "unnest(t.photos || coalesce(t.thumbnails, '{}') || coalesce(t.medium_photos, '{}')) AS p(url) " +
+           "WHERE p.url IN (:urls)",
            nativeQuery = true)
-    Page<Trip> findByKeywordPaged(@Param("keyword") String keyword, Pageable pageable);
+    List<String> findReferencedPhotos(@Param("urls") Collection<String> urls);
 }
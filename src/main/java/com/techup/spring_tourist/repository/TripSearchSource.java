@@ -0,0 +1,17 @@
+package com.techup.spring_tourist.repository;
+
+import java.time.OffsetDateTime;
+
+public interface TripSearchSource {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getLocation();
+
+    String[] getTags();
+
+    OffsetDateTime getUpdatedAt();
+}
@@ -0,0 +1,7 @@
+package com.techup.spring_tourist.repository;
+
+public interface TripTagCount {
+    String getTag();
+
+    long getCount();
+}
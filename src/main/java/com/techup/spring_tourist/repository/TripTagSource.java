@@ -0,0 +1,11 @@
+package com.techup.spring_tourist.repository;
+
+import java.time.OffsetDateTime;
+
+public interface TripTagSource {
+    Long getId();
+
+    String[] getTags();
+
+    OffsetDateTime getUpdatedAt();
+}
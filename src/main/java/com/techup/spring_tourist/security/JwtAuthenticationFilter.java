@@ -1,10 +1,12 @@
 package com.techup.spring_tourist.security;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -24,6 +26,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
   private final JwtService jwtService;
   private final UserDetailsService userDetailsService;
 
+  // Build the authentication from signed claims instead of loading the user on every request
+  @Value("${jwt.claims-authentication:true}")
+  private boolean claimsAuthentication;
+
   @Override
   protected void doFilterInternal(
       HttpServletRequest request,
@@ -46,7 +52,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
     
     try {
-      final String userEmail = jwtService.extractEmail(jwt);
+      final JwtPrincipal principal = jwtService.verify(jwt);
+      final String userEmail = principal.getEmail();
       
       if (userEmail == null || userEmail.trim().isEmpty()) {
         filterChain.doFilter(request, response);
@@ -54,13 +61,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       }
 
       if (SecurityContextHolder.getContext().getAuthentication() == null) {
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-            userDetails,
-            null,
-            userDetails.getAuthorities()
-        );
+        UsernamePasswordAuthenticationToken authToken;
+        if (claimsAuthentication && principal.hasUserClaims()) {
+          authToken = new UsernamePasswordAuthenticationToken(principal, null, List.of());
+        } else {
+          UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+          authToken = new UsernamePasswordAuthenticationToken(
+              userDetails,
+              null,
+              userDetails.getAuthorities()
+          );
+        }
         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authToken);
       }
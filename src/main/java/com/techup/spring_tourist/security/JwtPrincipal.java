@@ -0,0 +1,27 @@
+package com.techup.spring_tourist.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/** Identity carried by a verified token; {@link #getName()} is the email, as with the database-backed principal. */
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal implements Principal {
+  private final String email;
+  private final Long userId;
+  private final String displayName;
+  private final Instant expiresAt;
+
+  @Override
+  public String getName() {
+    return email;
+  }
+
+  /** Tokens issued before user id and display name were added as claims. */
+  public boolean hasUserClaims() {
+    return userId != null;
+  }
+}
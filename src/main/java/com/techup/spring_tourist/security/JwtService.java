@@ -1,57 +1,174 @@
 package com.techup.spring_tourist.security;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.techup.spring_tourist.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
+  private static final String USER_ID_CLAIM = "uid";
+  private static final String DISPLAY_NAME_CLAIM = "name";
+
   @Value("${jwt.secret:}")
   private String secretKey;
 
   @Value("${jwt.expiration:86400000}")
   private long expirationMs;
 
+  @Value("${jwt.cache.maximum-size:10000}")
+  private long cacheMaximumSize;
+
+  @Value("${jwt.cache.ttl:PT5M}")
+  private Duration cacheTtl;
+
+  // Built once; both are immutable and thread-safe
+  private SecretKey signingKey;
+  private JwtParser parser;
+
+  // Verified token -> principal; an entry never outlives the token's own exp claim
+  private Cache<String, JwtPrincipal> verifiedTokens;
+
+  private final Clock clock;
+  private final Timer verifyCached;
+  private final Timer verifyParsed;
+  private final Timer verifyRejected;
+
+  @Autowired
+  public JwtService(MeterRegistry meterRegistry) {
+    this(meterRegistry, Clock.systemUTC());
+  }
+
+  // Issuing, expiry checks and the cache all read this clock, so tests can move time forward
+  JwtService(MeterRegistry meterRegistry, Clock clock) {
+    this.clock = clock;
+    this.verifyCached = verifyTimer(meterRegistry, "cached");
+    this.verifyParsed = verifyTimer(meterRegistry, "verified");
+    this.verifyRejected = verifyTimer(meterRegistry, "rejected");
+  }
+
+  private static Timer verifyTimer(MeterRegistry meterRegistry, String result) {
+    return Timer.builder("auth.jwt.verify")
+        .description("JWT verification, including the verified-token cache lookup")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  void init() {
+    if (secretKey != null && !secretKey.trim().isEmpty()) {
+      signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+      parser = Jwts.parser().verifyWith(signingKey).clock(() -> Date.from(clock.instant())).build();
+    }
+    verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(cacheMaximumSize)
+        .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+        .expireAfter(new Expiry<String, JwtPrincipal>() {
+          @Override
+          public long expireAfterCreate(String token, JwtPrincipal principal, long currentTime) {
+            long untilExpiry = Duration.between(clock.instant(), principal.getExpiresAt()).toNanos();
+            return Math.max(0, Math.min(cacheTtl.toNanos(), untilExpiry));
+          }
+
+          @Override
+          public long expireAfterUpdate(String token, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+
+          @Override
+          public long expireAfterRead(String token, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .build();
+  }
+
   private SecretKey getSigningKey() {
-    if (secretKey == null || secretKey.trim().isEmpty()) {
+    if (signingKey == null) {
       throw new IllegalStateException("JWT secret key is not configured. Please set JWT_SECRET environment variable.");
     }
-    return Keys.hmacShaKeyFor(secretKey.getBytes());
+    return signingKey;
+  }
+
+  private JwtParser getParser() {
+    getSigningKey();
+    return parser;
   }
 
   public String generateToken(String email) {
     return Jwts.builder()
         .subject(email)
-        .issuedAt(new Date())
-        .expiration(new Date(System.currentTimeMillis() + expirationMs))
+        .issuedAt(Date.from(clock.instant()))
+        .expiration(new Date(clock.millis() + expirationMs))
         .signWith(getSigningKey())
         .compact();
   }
 
+  public String generateToken(User user) {
+    return Jwts.builder()
+        .subject(user.getEmail())
+        .claim(USER_ID_CLAIM, user.getId())
+        .claim(DISPLAY_NAME_CLAIM, user.getDisplayName())
+        .issuedAt(Date.from(clock.instant()))
+        .expiration(new Date(clock.millis() + expirationMs))
+        .signWith(getSigningKey())
+        .compact();
+  }
+
+  /** Verifies signature and expiry, reusing a recent verification of the same token. */
+  public JwtPrincipal verify(String token) {
+    long start = System.nanoTime();
+    JwtPrincipal cached = verifiedTokens.getIfPresent(token);
+    if (cached != null) {
+      verifyCached.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return cached;
+    }
+
+    Claims claims;
+    try {
+      claims = getParser().parseSignedClaims(token).getPayload();
+    } catch (RuntimeException e) {
+      verifyRejected.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      throw e;
+    }
+    Date expiration = claims.getExpiration();
+    JwtPrincipal principal = new JwtPrincipal(
+        claims.getSubject(),
+        claims.get(USER_ID_CLAIM, Long.class),
+        claims.get(DISPLAY_NAME_CLAIM, String.class),
+        expiration != null ? expiration.toInstant() : clock.instant().plus(cacheTtl));
+    verifiedTokens.put(token, principal);
+    verifyParsed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return principal;
+  }
+
   public String extractEmail(String token) {
-    return Jwts.parser()
-        .verifyWith(getSigningKey())
-        .build()
-        .parseSignedClaims(token)
-        .getPayload()
-        .getSubject();
+    return verify(token).getEmail();
   }
 
   public boolean isTokenValid(String token) {
     try {
-      Jwts.parser()
-          .verifyWith(getSigningKey())
-          .build()
-          .parseSignedClaims(token);
+      verify(token);
       return true;
     } catch (JwtException e) {
       return false;
     }
   }
-}
\ No newline at end of file
+}
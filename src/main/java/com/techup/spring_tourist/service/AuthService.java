@@ -3,19 +3,26 @@ package com.techup.spring_tourist.service;
 import com.techup.spring_tourist.dto.JwtResponse;
 import com.techup.spring_tourist.entity.User;
 import com.techup.spring_tourist.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
-import lombok.RequiredArgsConstructor;
 import com.techup.spring_tourist.security.JwtService;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class AuthService {
 
   private final UserRepository userRepository;
-  private final BCryptPasswordEncoder passwordEncoder;
+  private final PasswordHasher passwordHasher;
   private final JwtService jwtService;
+
+  public AuthService(UserRepository userRepository, PasswordHasher passwordHasher, JwtService jwtService) {
+    this.userRepository = userRepository;
+    this.passwordHasher = passwordHasher;
+    this.jwtService = jwtService;
+  }
+
   public void register(String displayName, String email, String password) {
     email = email.toLowerCase();
     if (userRepository.findByEmail(email).isPresent()) {
@@ -24,7 +31,7 @@ public class AuthService {
 
     User user = new User();
     user.setEmail(email);
-    user.setPasswordHash(passwordEncoder.encode(password));
+    user.setPasswordHash(passwordHasher.hash(password));
     user.setDisplayName(displayName);
     userRepository.save(user);
   }
@@ -34,11 +41,25 @@ public class AuthService {
     User user = userRepository.findByEmail(email)
         .orElseThrow(() -> new RuntimeException("User not found"));
 
-    if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+    if (!passwordHasher.matches(password, user.getPasswordHash())) {
       throw new RuntimeException("Invalid credentials");
     }
+    rehashIfNeeded(user, password);
 
-    String token = jwtService.generateToken(user.getEmail());
+    String token = jwtService.generateToken(user);
     return new JwtResponse(token, user.getEmail(), user.getDisplayName());
   }
-}
\ No newline at end of file
+
+  // The plain password is only known here; a saturated pool just postpones the upgrade to a later login
+  private void rehashIfNeeded(User user, String password) {
+    if (!passwordHasher.needsRehash(user.getPasswordHash())) {
+      return;
+    }
+    try {
+      user.setPasswordHash(passwordHasher.hash(password));
+      userRepository.save(user);
+    } catch (ResponseStatusException e) {
+      log.debug("Skipping password re-hash for user {}: {}", user.getId(), e.getReason());
+    }
+  }
+}
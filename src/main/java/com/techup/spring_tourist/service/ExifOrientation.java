@@ -0,0 +1,116 @@
+package com.techup.spring_tourist.service;
+
+import java.awt.geom.AffineTransform;
+import java.awt.image.AffineTransformOp;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the EXIF orientation tag from a JPEG and applies it to the decoded pixels. ImageIO
+ * ignores the tag, and re-encoding drops it, so phone photos would otherwise come out rotated.
+ */
+final class ExifOrientation {
+
+  static final int NORMAL = 1;
+
+  private static final int SOI = 0xFFD8;
+  private static final int APP1 = 0xFFE1;
+  private static final int SOS = 0xFFDA;
+  private static final int EOI = 0xFFD9;
+  private static final int ORIENTATION_TAG = 0x0112;
+
+  private ExifOrientation() {
+  }
+
+  /** Orientation 1-8 from the first EXIF segment, or {@link #NORMAL} when there is none. */
+  static int read(InputStream in) throws IOException {
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+    try {
+      if (data.readUnsignedShort() != SOI) {
+        return NORMAL;
+      }
+      while (true) {
+        int marker = data.readUnsignedShort();
+        if ((marker & 0xFF00) != 0xFF00 || marker == SOS || marker == EOI) {
+          return NORMAL;
+        }
+        int length = data.readUnsignedShort() - 2;
+        if (length < 0) {
+          return NORMAL;
+        }
+        if (marker == APP1) {
+          byte[] segment = data.readNBytes(length);
+          if (isExif(segment)) {
+            return orientation(segment, 6);
+          }
+        } else {
+          data.skipNBytes(length);
+        }
+      }
+    } catch (EOFException e) {
+      return NORMAL;
+    }
+  }
+
+  static BufferedImage apply(BufferedImage image, int orientation) {
+    double w = image.getWidth();
+    double h = image.getHeight();
+    // AffineTransform(m00, m10, m01, m11, m02, m12): x' = m00*x + m01*y + m02, y' = m10*x + m11*y + m12
+    AffineTransform transform = switch (orientation) {
+      case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+      case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+      case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+      case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+      case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+      case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+      case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+      default -> null;
+    };
+    if (transform == null) {
+      return image;
+    }
+    return new AffineTransformOp(transform, AffineTransformOp.TYPE_NEAREST_NEIGHBOR).filter(image, null);
+  }
+
+  private static boolean isExif(byte[] segment) {
+    return segment.length > 14 && segment[0] == 'E' && segment[1] == 'x' && segment[2] == 'i' && segment[3] == 'f'
+        && segment[4] == 0 && segment[5] == 0;
+  }
+
+  // TIFF header at `tiff`: byte order, magic 42, offset of IFD0; then 12-byte entries
+  private static int orientation(byte[] segment, int tiff) {
+    boolean littleEndian = segment[tiff] == 'I' && segment[tiff + 1] == 'I';
+    long ifd = tiff + readInt(segment, tiff + 4, littleEndian);
+    if (ifd + 2 > segment.length) {
+      return NORMAL;
+    }
+    int entries = readShort(segment, (int) ifd, littleEndian);
+    for (int i = 0; i < entries; i++) {
+      int entry = (int) ifd + 2 + i * 12;
+      if (entry + 12 > segment.length) {
+        return NORMAL;
+      }
+      if (readShort(segment, entry, littleEndian) == ORIENTATION_TAG) {
+        int value = readShort(segment, entry + 8, littleEndian);
+        return value >= 1 && value <= 8 ? value : NORMAL;
+      }
+    }
+    return NORMAL;
+  }
+
+  private static int readShort(byte[] bytes, int offset, boolean littleEndian) {
+    int b0 = bytes[offset] & 0xFF;
+    int b1 = bytes[offset + 1] & 0xFF;
+    return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+  }
+
+  private static long readInt(byte[] bytes, int offset, boolean littleEndian) {
+    long high = readShort(bytes, littleEndian ? offset + 2 : offset, littleEndian);
+    long low = readShort(bytes, littleEndian ? offset : offset + 2, littleEndian);
+    return (high << 16) | low;
+  }
+}
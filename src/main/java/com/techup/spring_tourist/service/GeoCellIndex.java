@@ -0,0 +1,221 @@
+package com.techup.spring_tourist.service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Fixed-size latitude/longitude grid of trip locations. A query visits only the cells
+ * overlapping its bounding box (or only the occupied cells, whichever is fewer), then refines
+ * the candidates with the haversine distance, so its cost follows the number of nearby trips.
+ */
+final class GeoCellIndex {
+
+  static final double EARTH_RADIUS_KM = 6371.0088;
+  private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+  private final double cellDegrees;
+  private final int latCells;
+  private final int lngCells;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Long, List<Point>> cells = new HashMap<>();
+  private final Map<Long, Point> points = new HashMap<>();
+  private OffsetDateTime maxUpdatedAt;
+
+  GeoCellIndex(double cellDegrees) {
+    this.cellDegrees = cellDegrees;
+    this.latCells = (int) Math.ceil(180 / cellDegrees);
+    this.lngCells = (int) Math.ceil(360 / cellDegrees);
+  }
+
+  void put(long tripId, Double latitude, Double longitude, OffsetDateTime updatedAt) {
+    lock.writeLock().lock();
+    try {
+      removeLocked(tripId);
+      if (latitude != null && longitude != null) {
+        Point point = new Point(tripId, latitude, longitude, cellKey(latIndex(latitude), lngIndex(longitude)));
+        points.put(tripId, point);
+        cells.computeIfAbsent(point.cell(), k -> new ArrayList<>()).add(point);
+      }
+      if (updatedAt != null && (maxUpdatedAt == null || updatedAt.isAfter(maxUpdatedAt))) {
+        maxUpdatedAt = updatedAt;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void remove(long tripId) {
+    lock.writeLock().lock();
+    try {
+      removeLocked(tripId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Trips within {@code radiusKm} of the point, nearest first. */
+  List<TripGeoIndex.Hit> nearest(double latitude, double longitude, double radiusKm, int limit) {
+    double[] box = boundingBox(latitude, longitude, radiusKm);
+    double minLat = box[0];
+    double maxLat = box[1];
+    int lngLo = box[3] - box[2] >= 360 ? 0 : lngIndexUnwrapped(box[2]);
+    int lngHi = box[3] - box[2] >= 360 ? lngCells - 1 : lngIndexUnwrapped(box[3]);
+
+    List<TripGeoIndex.Hit> hits = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      visit(latIndex(minLat), latIndex(maxLat), lngLo, lngHi, point -> {
+        double distance = haversineKm(latitude, longitude, point.latitude(), point.longitude());
+        if (distance <= radiusKm) {
+          hits.add(new TripGeoIndex.Hit(point.tripId(), distance));
+        }
+      });
+    } finally {
+      lock.readLock().unlock();
+    }
+    return nearestFirst(hits, limit);
+  }
+
+  /** Trips inside the box, nearest to its centre first. {@code minLng > maxLng} crosses the antimeridian. */
+  List<TripGeoIndex.Hit> within(double minLat, double maxLat, double minLng, double maxLng, int limit) {
+    boolean wraps = minLng > maxLng;
+    double lngWidth = wraps ? maxLng + 360 - minLng : maxLng - minLng;
+    double centerLat = (minLat + maxLat) / 2;
+    double centerLng = normalizeLng(minLng + lngWidth / 2);
+
+    int lngLo = lngIndexUnwrapped(minLng);
+    int lngHi = lngIndexUnwrapped(wraps ? maxLng + 360 : maxLng);
+
+    List<TripGeoIndex.Hit> hits = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      visit(latIndex(minLat), latIndex(maxLat), lngLo, lngHi, point -> {
+        boolean insideLng = wraps
+            ? point.longitude() >= minLng || point.longitude() <= maxLng
+            : point.longitude() >= minLng && point.longitude() <= maxLng;
+        if (insideLng && point.latitude() >= minLat && point.latitude() <= maxLat) {
+          hits.add(new TripGeoIndex.Hit(point.tripId(), haversineKm(centerLat, centerLng, point.latitude(), point.longitude())));
+        }
+      });
+    } finally {
+      lock.readLock().unlock();
+    }
+    return nearestFirst(hits, limit);
+  }
+
+  int size() {
+    lock.readLock().lock();
+    try {
+      return points.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  OffsetDateTime getMaxUpdatedAt() {
+    lock.readLock().lock();
+    try {
+      return maxUpdatedAt;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * {minLat, maxLat, minLng, maxLng} around a circle. Longitudes are not wrapped, so minLng may
+   * be below -180 or maxLng above 180; a span of 360 means every longitude.
+   */
+  static double[] boundingBox(double latitude, double longitude, double radiusKm) {
+    double latSpan = radiusKm / KM_PER_DEGREE;
+    double minLat = Math.max(-90, latitude - latSpan);
+    double maxLat = Math.min(90, latitude + latSpan);
+    double widestLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+    double lngSpan = widestLat >= 90 ? 180 : latSpan / Math.cos(Math.toRadians(widestLat));
+    if (lngSpan >= 180) {
+      return new double[] {minLat, maxLat, -180, 180};
+    }
+    return new double[] {minLat, maxLat, longitude - lngSpan, longitude + lngSpan};
+  }
+
+  static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+    double dLat = Math.toRadians(lat2 - lat1);
+    double dLng = Math.toRadians(lng2 - lng1);
+    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+        + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  static List<TripGeoIndex.Hit> nearestFirst(List<TripGeoIndex.Hit> hits, int limit) {
+    hits.sort(Comparator.comparingDouble(TripGeoIndex.Hit::getDistanceKm));
+    return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+  }
+
+  // lngLo..lngHi may run past the last column; columns wrap around the antimeridian
+  private void visit(int latLo, int latHi, int lngLo, int lngHi, Consumer<Point> visitor) {
+    int lngCount = Math.min(lngHi - lngLo + 1, lngCells);
+    long boxCells = (long) (latHi - latLo + 1) * lngCount;
+
+    if (boxCells > cells.size()) {
+      for (Map.Entry<Long, List<Point>> cell : cells.entrySet()) {
+        int lat = (int) (cell.getKey() >> 32);
+        int lng = (int) (long) cell.getKey();
+        if (lat >= latLo && lat <= latHi && Math.floorMod(lng - lngLo, lngCells) < lngCount) {
+          cell.getValue().forEach(visitor);
+        }
+      }
+      return;
+    }
+
+    for (int lat = latLo; lat <= latHi; lat++) {
+      for (int i = 0; i < lngCount; i++) {
+        List<Point> cell = cells.get(cellKey(lat, Math.floorMod(lngLo + i, lngCells)));
+        if (cell != null) {
+          cell.forEach(visitor);
+        }
+      }
+    }
+  }
+
+  private void removeLocked(long tripId) {
+    Point existing = points.remove(tripId);
+    if (existing == null) {
+      return;
+    }
+    List<Point> cell = cells.get(existing.cell());
+    cell.removeIf(point -> point.tripId() == tripId);
+    if (cell.isEmpty()) {
+      cells.remove(existing.cell());
+    }
+  }
+
+  private int latIndex(double latitude) {
+    return Math.min(latCells - 1, (int) Math.floor((latitude + 90) / cellDegrees));
+  }
+
+  private int lngIndex(double longitude) {
+    return Math.floorMod(lngIndexUnwrapped(longitude), lngCells);
+  }
+
+  private int lngIndexUnwrapped(double longitude) {
+    return (int) Math.floor((longitude + 180) / cellDegrees);
+  }
+
+  private static long cellKey(int latIndex, int lngIndex) {
+    return ((long) latIndex << 32) | (lngIndex & 0xFFFFFFFFL);
+  }
+
+  private static double normalizeLng(double longitude) {
+    return longitude > 180 ? longitude - 360 : longitude;
+  }
+
+  private record Point(long tripId, double latitude, double longitude, long cell) {
+  }
+}
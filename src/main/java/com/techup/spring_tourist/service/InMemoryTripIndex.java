@@ -0,0 +1,152 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.event.TripChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Lifecycle shared by the in-memory views of the trips table: a full build streamed from the
+ * database once the application is ready, incremental updates from committed
+ * {@link TripChangedEvent}s, and a periodic reconcile that subclasses schedule. Changes that
+ * arrive during a build are queued and replayed onto the new index before it is published.
+ * {@link #usableIndex()} is null while there is no complete index, so callers can fall back to SQL.
+ */
+@Slf4j
+public abstract class InMemoryTripIndex<T> {
+
+  private final TransactionTemplate readOnlyTransaction;
+
+  private final Object changeLock = new Object();
+  private final Queue<TripChangedEvent> pendingChanges = new ArrayDeque<>();
+  private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+  private volatile boolean rebuilding;
+  private volatile T index;
+
+  protected InMemoryTripIndex(PlatformTransactionManager transactionManager) {
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  protected abstract boolean isEnabled();
+
+  protected abstract T createIndex();
+
+  /** Fills an empty index from the database; runs inside a read-only transaction. */
+  protected abstract void load(T target);
+
+  protected abstract void apply(T target, TripChangedEvent event);
+
+  protected abstract int size(T target);
+
+  /** Number of rows the index should hold, compared with {@link #size} when reconciling. */
+  protected abstract long expectedSize();
+
+  /** Applies rows changed by other instances since the index's watermark, via {@link #applyToCurrent}. */
+  protected abstract void catchUp(T current);
+
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    if (isEnabled()) {
+      rebuild();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTripChanged(TripChangedEvent event) {
+    if (!isEnabled()) {
+      return;
+    }
+    synchronized (changeLock) {
+      if (rebuilding) {
+        pendingChanges.add(event);
+        return;
+      }
+      T current = index;
+      if (current != null) {
+        apply(current, event);
+      }
+    }
+  }
+
+  public void rebuild() {
+    if (!rebuildRunning.compareAndSet(false, true)) {
+      return;
+    }
+    synchronized (changeLock) {
+      rebuilding = true;
+    }
+
+    T fresh = createIndex();
+    boolean built = false;
+    try {
+      long started = System.nanoTime();
+      readOnlyTransaction.executeWithoutResult(status -> load(fresh));
+      log.info("{} built with {} trips in {} ms", getClass().getSimpleName(), size(fresh),
+          (System.nanoTime() - started) / 1_000_000);
+      built = true;
+    } catch (RuntimeException e) {
+      log.error("{} build failed, queries stay on SQL: {}", getClass().getSimpleName(), e.getMessage(), e);
+    } finally {
+      synchronized (changeLock) {
+        if (built) {
+          // Changes committed while streaming; re-applying ones the stream already saw is harmless
+          TripChangedEvent change;
+          while ((change = pendingChanges.poll()) != null) {
+            apply(fresh, change);
+          }
+          index = fresh;
+        }
+        pendingChanges.clear();
+        rebuilding = false;
+      }
+      rebuildRunning.set(false);
+    }
+  }
+
+  /**
+   * Catches up with writes from other instances and rebuilds when the size drifts from the
+   * table, which is how deletes made elsewhere are detected.
+   */
+  protected void reconcile() {
+    T current = usableIndex();
+    if (current == null) {
+      return;
+    }
+
+    catchUp(current);
+
+    long expected = expectedSize();
+    if (expected != size(current)) {
+      log.warn("{} holds {} trips but the table has {}, rebuilding", getClass().getSimpleName(), size(current), expected);
+      rebuild();
+    }
+  }
+
+  protected void applyToCurrent(Consumer<T> change) {
+    synchronized (changeLock) {
+      T current = index;
+      if (current != null && !rebuilding) {
+        change.accept(current);
+      }
+    }
+  }
+
+  protected T usableIndex() {
+    T current = index;
+    if (!isEnabled() || rebuilding || current == null) {
+      return null;
+    }
+    return current;
+  }
+}
@@ -0,0 +1,168 @@
+package com.techup.spring_tourist.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Stores photos as files under {@code storage.local.root}, served by this application from
+ * {@code GET /api/photos/{name}}. Each file is written to a temp file in the same directory, forced
+ * to disk and renamed into place, so a reader sees either the whole object or none of it. A file
+ * that already exists is not written again: its name is the hash of its content.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalStorageService implements StorageService {
+
+  // Content hash plus optional extension; nothing else is ever resolved against the root
+  private static final Pattern OBJECT_NAME = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,10})?");
+
+  private static final long TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+
+  @Value("${storage.local.root:./data/photos}")
+  private Path root;
+
+  @Value("${storage.local.public-url:/api/photos}")
+  private String publicUrl;
+
+  private final MeterRegistry meterRegistry;
+  private final DistributionSummary uploadSize;
+  private final Counter uploadsSkipped;
+
+  public LocalStorageService(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.uploadSize = DistributionSummary.builder("storage.upload.size")
+        .description("Size of objects written to local storage")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    this.uploadsSkipped = Counter.builder("storage.upload.skipped")
+        .description("Uploads skipped because the same content is already stored")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void init() throws IOException {
+    root = Files.createDirectories(root.toAbsolutePath().normalize());
+    publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+    log.info("Storing photos under {}, served from {}", root, publicUrl);
+  }
+
+  @Override
+  public String contentUrl(String sha256, String filename) {
+    return publicUrl + "/" + StorageService.objectName(sha256, filename);
+  }
+
+  @Override
+  public void uploadAll(List<Upload> uploads) {
+    Map<Path, Upload> pending = new LinkedHashMap<>();
+    for (Upload upload : uploads) {
+      Path target = resolve(objectName(upload.url()))
+          .orElseThrow(() -> new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+              "Not a local storage URL: " + upload.url()));
+      if (!Files.exists(target)) {
+        pending.putIfAbsent(target, upload);
+      }
+    }
+    if (pending.size() < uploads.size()) {
+      uploadsSkipped.increment(uploads.size() - pending.size());
+    }
+
+    for (Map.Entry<Path, Upload> entry : pending.entrySet()) {
+      Timer.Sample sample = Timer.start(meterRegistry);
+      String outcome = "error";
+      try {
+        write(entry.getValue(), entry.getKey());
+        uploadSize.record(entry.getValue().size());
+        outcome = "success";
+      } catch (IOException e) {
+        throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+            "Failed to write " + entry.getKey().getFileName() + ": " + e.getMessage(), e);
+      } finally {
+        sample.stop(Timer.builder("storage.upload")
+            .description("Local storage write latency")
+            .tag("outcome", outcome)
+            .register(meterRegistry));
+      }
+    }
+  }
+
+  @Override
+  public void deleteFiles(Collection<String> urls) {
+    for (String url : urls) {
+      Optional<Path> file = resolve(objectName(url));
+      if (file.isEmpty()) {
+        continue;
+      }
+      try {
+        Files.deleteIfExists(file.get());
+      } catch (IOException e) {
+        log.warn("Could not delete {}: {}", file.get(), e.getMessage());
+      }
+    }
+  }
+
+  /** The stored file for an object name, if the name is well formed; the file itself may not exist. */
+  public Optional<Path> resolve(String name) {
+    return name != null && OBJECT_NAME.matcher(name).matches() ? Optional.of(root.resolve(name)) : Optional.empty();
+  }
+
+  private void write(Upload upload, Path target) throws IOException {
+    Path temp = Files.createTempFile(root, ".upload-", ".tmp");
+    try {
+      try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        // Spooled variants are files already: copy them in the kernel rather than through the heap
+        if (upload.content() instanceof FileSystemResource file) {
+          try (FileChannel in = FileChannel.open(file.getFile().toPath(), StandardOpenOption.READ)) {
+            long size = in.size();
+            for (long position = 0; position < size; ) {
+              position += in.transferTo(position, Math.min(TRANSFER_CHUNK_SIZE, size - position), out);
+            }
+          }
+        } else {
+          try (InputStream stream = upload.content().getInputStream();
+               ReadableByteChannel in = Channels.newChannel(stream)) {
+            long position = 0;
+            for (long read; (read = out.transferFrom(in, position, TRANSFER_CHUNK_SIZE)) > 0; ) {
+              position += read;
+            }
+          }
+        }
+        out.force(true);
+      }
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private String objectName(String url) {
+    String prefix = publicUrl + "/";
+    return url != null && url.startsWith(prefix) ? url.substring(prefix.length()) : null;
+  }
+}
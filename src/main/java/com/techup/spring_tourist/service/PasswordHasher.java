@@ -0,0 +1,124 @@
+package com.techup.spring_tourist.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt off the request threads: hashing and verification run on a fixed pool of
+ * {@code auth.password.threads} (default: half the cores) with a bounded queue, so a burst of
+ * logins cannot take every core from trip reads. When the queue is full, or a hash waits longer
+ * than {@code auth.password.timeout}, callers get 503 instead of piling up.
+ */
+@Component
+public class PasswordHasher {
+
+  private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
+
+  @Value("${auth.password.threads:0}")
+  private int threads;
+
+  @Value("${auth.password.queue-capacity:100}")
+  private int queueCapacity;
+
+  @Value("${auth.password.timeout:PT10S}")
+  private Duration timeout;
+
+  @Value("${auth.password.bcrypt-strength:10}")
+  private int strength;
+
+  private final BCryptPasswordEncoder passwordEncoder;
+  private final Timer passwordHash;
+  private final Timer passwordVerify;
+  private final Counter rejected;
+
+  private ThreadPoolExecutor executor;
+
+  public PasswordHasher(BCryptPasswordEncoder passwordEncoder, MeterRegistry meterRegistry) {
+    this.passwordEncoder = passwordEncoder;
+    this.passwordHash = Timer.builder("auth.password.hash")
+        .description("BCrypt hashing of new passwords")
+        .register(meterRegistry);
+    this.passwordVerify = Timer.builder("auth.password.verify")
+        .description("BCrypt comparison of login passwords")
+        .register(meterRegistry);
+    this.rejected = Counter.builder("auth.password.rejected")
+        .description("Password hashes refused because the hashing pool was saturated")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void init() {
+    int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    AtomicInteger counter = new AtomicInteger();
+    executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+          Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  public String hash(String password) {
+    return run(() -> passwordHash.record(() -> passwordEncoder.encode(password)));
+  }
+
+  public boolean matches(String password, String hash) {
+    return run(() -> passwordVerify.record(() -> passwordEncoder.matches(password, hash)));
+  }
+
+  /** True when the hash was made with another cost than {@code auth.password.bcrypt-strength}, lower or higher. */
+  public boolean needsRehash(String hash) {
+    Matcher cost = hash != null ? BCRYPT_COST.matcher(hash) : null;
+    return cost == null || !cost.find() || Integer.parseInt(cost.group(1)) != strength;
+  }
+
+  private <T> T run(Callable<T> work) {
+    Future<T> future;
+    try {
+      future = executor.submit(work);
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Too many sign-ins in progress, please retry shortly");
+    }
+    try {
+      return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      rejected.increment();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sign-in timed out, please retry shortly");
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sign-in was interrupted");
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+    }
+  }
+}
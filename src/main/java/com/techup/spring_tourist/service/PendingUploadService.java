@@ -0,0 +1,95 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.entity.PendingUpload;
+import com.techup.spring_tourist.repository.PendingUploadRepository;
+import com.techup.spring_tourist.repository.TripRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outbox for photo uploads, which happen outside any database transaction. A record is written
+ * before the upload and deleted in the same transaction that saves the trip using the photos,
+ * so a crash or failed save leaves it behind. Records older than the grace period are
+ * reconciled: photos no trip references are deleted from storage, then the record goes.
+ * Photos replaced by an update are recorded the same way. Photos are stored under content
+ * hashes and may be shared, so a photo still listed in another pending record is kept too.
+ */
+@Slf4j
+@Service
+public class PendingUploadService {
+
+  @Value("${uploads.pending.grace-period:PT15M}")
+  private Duration gracePeriod;
+
+  @Value("${uploads.pending.batch-size:100}")
+  private int batchSize;
+
+  private final PendingUploadRepository pendingUploadRepository;
+  private final TripRepository tripRepository;
+  private final StorageService storageService;
+
+  public PendingUploadService(PendingUploadRepository pendingUploadRepository, TripRepository tripRepository,
+                              StorageService storageService) {
+    this.pendingUploadRepository = pendingUploadRepository;
+    this.tripRepository = tripRepository;
+    this.storageService = storageService;
+  }
+
+  /** Records photos before they are uploaded; commits on its own. */
+  public PendingUpload record(String[] photoUrls) {
+    return pendingUploadRepository.save(new PendingUpload(photoUrls));
+  }
+
+  /** Marks the photos as referenced; call inside the transaction that saves the trip. */
+  public void complete(PendingUpload pending) {
+    pendingUploadRepository.deleteById(pending.getId());
+  }
+
+  /** Deletes a failed attempt's photos right away, leaving the record for the reconciler if that fails. */
+  public void discard(PendingUpload pending) {
+    try {
+      release(pending);
+    } catch (RuntimeException e) {
+      log.warn("Could not discard pending upload {}, leaving it for reconciliation: {}", pending.getId(), e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${uploads.pending.reconcile-interval:PT5M}",
+      initialDelayString = "${uploads.pending.reconcile-interval:PT5M}")
+  public void reconcile() {
+    List<PendingUpload> stale = pendingUploadRepository.findByCreatedAtBeforeOrderByCreatedAtAsc(
+        OffsetDateTime.now().minus(gracePeriod), Limit.of(batchSize));
+    for (PendingUpload pending : stale) {
+      try {
+        release(pending);
+      } catch (RuntimeException e) {
+        log.warn("Pending upload {} not reconciled, retrying later: {}", pending.getId(), e.getMessage());
+      }
+    }
+  }
+
+  private void release(PendingUpload pending) {
+    Set<String> orphaned = new HashSet<>(Arrays.asList(pending.getPhotoUrls()));
+    if (!orphaned.isEmpty()) {
+      orphaned.removeAll(tripRepository.findReferencedPhotos(orphaned));
+      if (!orphaned.isEmpty()) {
+        orphaned.removeAll(pendingUploadRepository.findUrlsPendingElsewhere(pending.getId(), orphaned));
+      }
+      storageService.deleteFiles(orphaned);
+    }
+    pendingUploadRepository.deleteById(pending.getId());
+    if (!orphaned.isEmpty()) {
+      log.info("Deleted {} orphaned photos from pending upload {}", orphaned.size(), pending.getId());
+    }
+  }
+}
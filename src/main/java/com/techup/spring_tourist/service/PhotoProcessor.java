@@ -0,0 +1,266 @@
+package com.techup.spring_tourist.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns uploaded photos into a re-encoded original, a medium size and a thumbnail (JPEG, EXIF
+ * orientation applied, all metadata dropped). Decoding is CPU and heap heavy, so it runs on a
+ * fixed pool of {@code photos.processing.threads} (default: one per core) with a bounded queue;
+ * when the queue is full callers get 503 instead of piling up. Files ImageIO cannot decode
+ * (HEIC, WebP, ...) are passed through unchanged.
+ */
+@Slf4j
+@Component
+public class PhotoProcessor {
+
+  private static final String JPEG = "image/jpeg";
+
+  @Value("${photos.processing.threads:0}")
+  private int threads;
+
+  @Value("${photos.processing.queue-capacity:50}")
+  private int queueCapacity;
+
+  @Value("${photos.processing.thumbnail-size:320}")
+  private int thumbnailSize;
+
+  @Value("${photos.processing.medium-size:1280}")
+  private int mediumSize;
+
+  @Value("${photos.processing.quality:0.82}")
+  private float quality;
+
+  @Value("${photos.processing.max-pixels:50000000}")
+  private long maxPixels;
+
+  @Value("${photos.processing.timeout:PT60S}")
+  private Duration timeout;
+
+  private ThreadPoolExecutor executor;
+
+  @PostConstruct
+  public void init() {
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger counter = new AtomicInteger();
+    executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+          Thread thread = new Thread(runnable, "photo-processing-" + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /** Processes the files in parallel; the result is in input order and the caller must close every entry. */
+  public List<ProcessedPhoto> process(MultipartFile[] files) {
+    List<Future<ProcessedPhoto>> futures = new ArrayList<>(files.length);
+    List<ProcessedPhoto> processed = new ArrayList<>(files.length);
+    try {
+      for (MultipartFile file : files) {
+        futures.add(executor.submit(() -> {
+          ProcessedPhoto photo = process(file);
+          // Cancelled while running (ImageIO ignores interrupts): nobody will close the result
+          if (Thread.interrupted()) {
+            photo.close();
+          }
+          return photo;
+        }));
+      }
+      long deadline = System.nanoTime() + timeout.toNanos();
+      for (Future<ProcessedPhoto> future : futures) {
+        processed.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+      }
+      return processed;
+    } catch (RejectedExecutionException e) {
+      throw failed(futures, processed, new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Too many photos are being processed, please retry shortly"));
+    } catch (TimeoutException e) {
+      throw failed(futures, processed, new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Photo processing timed out"));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw failed(futures, processed, new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Photo processing was interrupted"));
+    } catch (ExecutionException e) {
+      throw failed(futures, processed, e.getCause() instanceof ResponseStatusException rse ? rse
+          : new ResponseStatusException(HttpStatus.BAD_REQUEST, "Could not process photo: " + e.getCause().getMessage(), e.getCause()));
+    }
+  }
+
+  ProcessedPhoto process(MultipartFile file) throws IOException {
+    BufferedImage image = decode(file);
+    if (image == null) {
+      String sha256;
+      try (InputStream in = file.getInputStream()) {
+        sha256 = ContentHash.of(in);
+      }
+      return ProcessedPhoto.unprocessed(
+          new ProcessedPhoto.Variant(file.getOriginalFilename(), file, file.getContentType(), file.getSize(), sha256));
+    }
+
+    int orientation;
+    try (InputStream in = file.getInputStream()) {
+      orientation = ExifOrientation.read(in);
+    }
+    image = ExifOrientation.apply(toRgb(image), orientation);
+
+    String base = baseName(file.getOriginalFilename());
+    List<Path> tempFiles = new ArrayList<>(3);
+    try {
+      BufferedImage medium = scale(image, mediumSize);
+      ProcessedPhoto.Variant original = encode(image, base + ".jpg", tempFiles);
+      ProcessedPhoto.Variant mediumVariant = encode(medium, base + "_medium.jpg", tempFiles);
+      ProcessedPhoto.Variant thumbnail = encode(scale(medium, thumbnailSize), base + "_thumb.jpg", tempFiles);
+      return new ProcessedPhoto(original, mediumVariant, thumbnail, tempFiles);
+    } catch (IOException | RuntimeException e) {
+      new ProcessedPhoto(null, null, null, tempFiles).close();
+      throw e;
+    }
+  }
+
+  // Null when no ImageIO reader handles the format (or the JPEG is e.g. CMYK, which ImageIO cannot decode)
+  private BufferedImage decode(MultipartFile file) throws IOException {
+    try (InputStream in = file.getInputStream(); ImageInputStream input = ImageIO.createImageInputStream(in)) {
+      Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+      if (readers == null || !readers.hasNext()) {
+        return null;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        // Checked before decoding so a tiny file declaring huge dimensions cannot exhaust the heap
+        if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+          throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Photo has too many pixels: " + file.getOriginalFilename());
+        }
+        return reader.read(0);
+      } catch (IIOException e) {
+        log.debug("Storing {} unprocessed: {}", file.getOriginalFilename(), e.getMessage());
+        return null;
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private ProcessedPhoto.Variant encode(BufferedImage image, String filename, List<Path> tempFiles) throws IOException {
+    Path file = Files.createTempFile("photo-", ".jpg");
+    tempFiles.add(file);
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    // Hashed as it is written, so naming the stored object costs no second read
+    MessageDigest digest = ContentHash.newDigest();
+    try (OutputStream out = new DigestOutputStream(Files.newOutputStream(file), digest);
+         ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(quality);
+      param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+      writer.setOutput(output);
+      // No metadata passed in, so nothing from the upload (EXIF, GPS, ...) is written out
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return ProcessedPhoto.Variant.of(file, filename, JPEG, ContentHash.hex(digest));
+  }
+
+  // Halves with bilinear filtering until close, then one final step: much sharper than a single large step
+  static BufferedImage scale(BufferedImage image, int maxEdge) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    if (Math.max(width, height) <= maxEdge) {
+      return image;
+    }
+    double ratio = (double) maxEdge / Math.max(width, height);
+    int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+    int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+    BufferedImage current = image;
+    do {
+      width = Math.max(targetWidth, width / 2);
+      height = Math.max(targetHeight, height / 2);
+      BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      Graphics2D graphics = next.createGraphics();
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.drawImage(current, 0, 0, width, height, null);
+      graphics.dispose();
+      current = next;
+    } while (width != targetWidth || height != targetHeight);
+    return current;
+  }
+
+  // JPEG has no alpha; transparent areas become white
+  private static BufferedImage toRgb(BufferedImage image) {
+    if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+      return image;
+    }
+    BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = rgb.createGraphics();
+    graphics.setColor(Color.WHITE);
+    graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+    graphics.drawImage(image, 0, 0, null);
+    graphics.dispose();
+    return rgb;
+  }
+
+  private static String baseName(String filename) {
+    String name = filename != null ? filename : "photo";
+    int dot = name.lastIndexOf('.');
+    return dot > 0 ? name.substring(0, dot) : name;
+  }
+
+  private static ResponseStatusException failed(List<Future<ProcessedPhoto>> futures, List<ProcessedPhoto> processed,
+                                                ResponseStatusException error) {
+    for (int i = processed.size(); i < futures.size(); i++) {
+      Future<ProcessedPhoto> future = futures.get(i);
+      // Already finished but not collected yet: its temp files are ours to delete
+      if (!future.cancel(true) && future.state() == Future.State.SUCCESS) {
+        future.resultNow().close();
+      }
+    }
+    processed.forEach(ProcessedPhoto::close);
+    return error;
+  }
+}
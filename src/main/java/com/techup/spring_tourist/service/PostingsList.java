@@ -0,0 +1,79 @@
+package com.techup.spring_tourist.service;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of internal document numbers for one term, with a byte of field flags per
+ * posting. Two parallel primitive arrays keep it at five bytes per posting; documents are
+ * numbered in insertion order, so indexing new trips is an append.
+ */
+final class PostingsList {
+
+  private int[] docs = new int[4];
+  private byte[] fields = new byte[4];
+  private int size;
+
+  void add(int doc, byte fieldFlags) {
+    if (size == 0 || docs[size - 1] < doc) {
+      ensureCapacity();
+      docs[size] = doc;
+      fields[size] = fieldFlags;
+      size++;
+      return;
+    }
+
+    int position = Arrays.binarySearch(docs, 0, size, doc);
+    if (position >= 0) {
+      fields[position] |= fieldFlags;
+      return;
+    }
+
+    int insertAt = -position - 1;
+    ensureCapacity();
+    System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+    System.arraycopy(fields, insertAt, fields, insertAt + 1, size - insertAt);
+    docs[insertAt] = doc;
+    fields[insertAt] = fieldFlags;
+    size++;
+  }
+
+  void remove(int doc) {
+    int position = Arrays.binarySearch(docs, 0, size, doc);
+    if (position < 0) {
+      return;
+    }
+    System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+    System.arraycopy(fields, position + 1, fields, position, size - position - 1);
+    size--;
+  }
+
+  /** Field flags of {@code doc}, or 0 when the term does not occur in it. */
+  byte fieldsOf(int doc) {
+    int position = Arrays.binarySearch(docs, 0, size, doc);
+    return position >= 0 ? fields[position] : 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int docAt(int index) {
+    return docs[index];
+  }
+
+  byte fieldsAt(int index) {
+    return fields[index];
+  }
+
+  private void ensureCapacity() {
+    if (size == docs.length) {
+      int capacity = docs.length + (docs.length >> 1);
+      docs = Arrays.copyOf(docs, capacity);
+      fields = Arrays.copyOf(fields, capacity);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.techup.spring_tourist.service;
+
+import lombok.Getter;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The variants made from one uploaded photo, each spooled to a temp file that {@link #close()}
+ * deletes. When the upload could not be decoded as an image, only {@link #getOriginal()} is set
+ * and it streams the upload unchanged.
+ */
+@Getter
+public class ProcessedPhoto implements AutoCloseable {
+
+  private final Variant original;
+  private final Variant medium;
+  private final Variant thumbnail;
+  private final List<Path> tempFiles;
+
+  ProcessedPhoto(Variant original, Variant medium, Variant thumbnail, List<Path> tempFiles) {
+    this.original = original;
+    this.medium = medium;
+    this.thumbnail = thumbnail;
+    this.tempFiles = tempFiles;
+  }
+
+  static ProcessedPhoto unprocessed(Variant original) {
+    return new ProcessedPhoto(original, null, null, List.of());
+  }
+
+  public boolean isProcessed() {
+    return thumbnail != null;
+  }
+
+  @Override
+  public void close() {
+    for (Path file : tempFiles) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException ignored) {
+        // Temp directory cleanup will get it
+      }
+    }
+  }
+
+  /** One stored file; {@code sha256} is the hex digest of its bytes, which names the stored object. */
+  public record Variant(String filename, InputStreamSource content, String contentType, long size, String sha256) {
+
+    static Variant of(Path file, String filename, String contentType, String sha256) throws IOException {
+      return new Variant(filename, new FileSystemResource(file), contentType, Files.size(file), sha256);
+    }
+
+    public StorageService.Upload toUpload(String url) {
+      return new StorageService.Upload(url, content, contentType, size);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.techup.spring_tourist.service;
+
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Where uploaded photos are stored, selected with {@code storage.backend}. Objects are named by the
+ * SHA-256 of their content, so a name always denotes the same bytes: backends may skip uploads of
+ * content they already hold, and stored objects can be cached forever.
+ */
+public interface StorageService {
+
+  /** Public URL for content with the given SHA-256; the file name only contributes its extension. */
+  String contentUrl(String sha256, String filename);
+
+  /**
+   * Stores every upload under its planned URL. Nothing is deleted when an upload fails, because an
+   * object may be shared with other trips; a retry reuses whatever already made it.
+   */
+  void uploadAll(List<Upload> uploads);
+
+  /** Deletes stored objects by public URL; URLs this backend does not serve are ignored. */
+  void deleteFiles(Collection<String> urls);
+
+  default String uploadFile(MultipartFile file) {
+    String url = planUploads(new MultipartFile[] {file})[0];
+    uploadAll(List.of(Upload.of(file, url)));
+    return url;
+  }
+
+  default String[] uploadFiles(MultipartFile[] files) {
+    return uploadFiles(files, planUploads(files));
+  }
+
+  /**
+   * The content-addressed URLs the files will be stored under, so callers can record them before
+   * anything is uploaded. Reads each file once to hash it.
+   */
+  default String[] planUploads(MultipartFile[] files) {
+    String[] urls = new String[files.length];
+    for (int i = 0; i < files.length; i++) {
+      try (InputStream in = files[i].getInputStream()) {
+        urls[i] = contentUrl(ContentHash.of(in), files[i].getOriginalFilename());
+      } catch (IOException e) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot read file bytes", e);
+      }
+    }
+    return urls;
+  }
+
+  /** Uploads the files under the URLs from {@link #planUploads} and returns those URLs. */
+  default String[] uploadFiles(MultipartFile[] files, String[] urls) {
+    List<Upload> uploads = new ArrayList<>(files.length);
+    for (int i = 0; i < files.length; i++) {
+      if (files[i].isEmpty()) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+            String.format("File at index %d is empty", i));
+      }
+      uploads.add(Upload.of(files[i], urls[i]));
+    }
+    uploadAll(uploads);
+    return urls;
+  }
+
+  /** Object name for content with the given SHA-256: the hash plus the file's extension, if it has a usable one. */
+  static String objectName(String sha256, String filename) {
+    String extension = extension(filename);
+    return extension.isEmpty() ? sha256 : sha256 + "." + extension;
+  }
+
+  static String extension(String filename) {
+    if (filename == null) {
+      return "";
+    }
+    int dot = filename.lastIndexOf('.');
+    String extension = dot >= 0 ? filename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    return extension.matches("[a-z0-9]{1,10}") ? extension : "";
+  }
+
+  /** Content to store under a planned URL; read once, as a stream, when it is uploaded. */
+  record Upload(String url, InputStreamSource content, String contentType, long size) {
+
+    public static Upload of(MultipartFile file, String url) {
+      return new Upload(url, file, file.getContentType(), file.getSize());
+    }
+  }
+}
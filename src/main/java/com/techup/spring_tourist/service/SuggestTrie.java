@@ -0,0 +1,134 @@
+package com.techup.spring_tourist.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Character trie of weighted completions where every node caches the best {@code maxResults}
+ * completions below it, so a lookup is a walk down the prefix plus a copy. A weight change
+ * recomputes the caches on the changed key's path only, bottom-up from the children's caches.
+ * Not thread-safe; {@link TripSuggestions} guards it.
+ */
+final class SuggestTrie {
+
+  private static final Entry[] NONE = new Entry[0];
+
+  static final Comparator<Entry> BY_WEIGHT =
+      Comparator.comparingLong(Entry::weight).reversed().thenComparing(Entry::text);
+
+  private final int maxResults;
+  private final Node root = new Node();
+  private int keys;
+
+  SuggestTrie(int maxResults) {
+    this.maxResults = maxResults;
+  }
+
+  /** Adds {@code delta} to the weight of {@code key}; a key whose weight drops to zero is removed. */
+  void add(String key, String text, long delta) {
+    Node[] path = new Node[key.length() + 1];
+    path[0] = root;
+    Node node = root;
+    for (int i = 0; i < key.length(); i++) {
+      Node next = node.child(key.charAt(i));
+      if (next == null) {
+        if (delta <= 0) {
+          return;
+        }
+        next = node.addChild(key.charAt(i));
+      }
+      node = next;
+      path[i + 1] = node;
+    }
+
+    if (node.entry == null) {
+      if (delta <= 0) {
+        return;
+      }
+      node.entry = new Entry(text, 0);
+      keys++;
+    }
+    long weight = node.entry.weight() + delta;
+    if (weight > 0) {
+      node.entry = new Entry(node.entry.text(), weight);
+    } else {
+      node.entry = null;
+      keys--;
+    }
+
+    for (int i = path.length - 1; i >= 0; i--) {
+      Node current = path[i];
+      if (i > 0 && current.entry == null && current.children == null) {
+        path[i - 1].removeChild(key.charAt(i - 1));
+        continue;
+      }
+      current.top = best(current);
+    }
+  }
+
+  /** The heaviest completions of {@code prefix}, at most {@code limit} (capped at {@code maxResults}). */
+  List<Entry> complete(String prefix, int limit) {
+    Node node = root;
+    for (int i = 0; i < prefix.length() && node != null; i++) {
+      node = node.child(prefix.charAt(i));
+    }
+    if (node == null) {
+      return List.of();
+    }
+    return Arrays.asList(node.top).subList(0, Math.min(limit, node.top.length));
+  }
+
+  int size() {
+    return keys;
+  }
+
+  private Entry[] best(Node node) {
+    List<Entry> candidates = new ArrayList<>();
+    if (node.entry != null) {
+      candidates.add(node.entry);
+    }
+    if (node.children != null) {
+      for (Node child : node.children.values()) {
+        candidates.addAll(Arrays.asList(child.top));
+      }
+    }
+    if (candidates.isEmpty()) {
+      return NONE;
+    }
+    candidates.sort(BY_WEIGHT);
+    return candidates.subList(0, Math.min(maxResults, candidates.size())).toArray(NONE);
+  }
+
+  record Entry(String text, long weight) {
+  }
+
+  private static final class Node {
+    private Map<Character, Node> children;
+    private Entry entry;
+    private Entry[] top = NONE;
+
+    Node child(char c) {
+      return children != null ? children.get(c) : null;
+    }
+
+    Node addChild(char c) {
+      if (children == null) {
+        children = new HashMap<>(4);
+      }
+      Node child = new Node();
+      children.put(c, child);
+      return child;
+    }
+
+    void removeChild(char c) {
+      children.remove(c);
+      if (children.isEmpty()) {
+        children = null;
+      }
+    }
+  }
+}
@@ -1,18 +1,43 @@
 package com.techup.spring_tourist.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+/** Stores photos in a Supabase storage bucket; the default {@code storage.backend}. */
+@Slf4j
 @Service
-public class SupabaseStorageService {
+@ConditionalOnProperty(name = "storage.backend", havingValue = "supabase", matchIfMissing = true)
+public class SupabaseStorageService implements StorageService {
 
   @Value("${supabase.url:}")
   private String supabaseUrl;
@@ -26,9 +51,151 @@ public class SupabaseStorageService {
   @Value("${supabase.serviceRoleKey:}")
   private String serviceRoleKey;
 
-  private final WebClient webClient = WebClient.builder().build();
+  @Value("${supabase.upload.concurrency:5}")
+  private int uploadConcurrency;
 
-  public String uploadFile(MultipartFile file) {
+  private static final int UPLOAD_CHUNK_SIZE = 64 * 1024;
+
+  @Value("${supabase.dedupe.maximum-size:100000}")
+  private long dedupeMaximumSize;
+
+  @Value("${supabase.dedupe.ttl:PT10M}")
+  private Duration dedupeTtl;
+
+  private final WebClient webClient;
+  private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+  private final MeterRegistry meterRegistry;
+  private final DistributionSummary uploadSize;
+  private final Counter uploadsSkipped;
+
+  // Object names this instance has stored; entries must expire before the pending-upload grace
+  // period ends, so an object the reconciler may delete is never assumed to exist
+  private Cache<String, Boolean> knownObjects;
+
+  public SupabaseStorageService(WebClient storageWebClient, MeterRegistry meterRegistry) {
+    this.webClient = storageWebClient;
+    this.meterRegistry = meterRegistry;
+    this.uploadSize = DistributionSummary.builder("storage.upload.size")
+        .description("Size of objects uploaded to Supabase storage")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    this.uploadsSkipped = Counter.builder("storage.upload.skipped")
+        .description("Uploads skipped because the same content was stored recently")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  public void init() {
+    knownObjects = Caffeine.newBuilder()
+        .maximumSize(dedupeMaximumSize)
+        .expireAfterWrite(dedupeTtl)
+        .build();
+  }
+
+  @Override
+  public String contentUrl(String sha256, String filename) {
+    return publicUrl(StorageService.objectName(sha256, filename));
+  }
+
+  /**
+   * Uploads concurrently, at most {@code supabase.upload.concurrency} at a time. Objects this
+   * instance uploaded within {@code supabase.dedupe.ttl} are skipped: names are content hashes,
+   * so the stored object is already identical.
+   */
+  @Override
+  public void uploadAll(List<Upload> uploads) {
+    Map<String, Upload> pending = new LinkedHashMap<>();
+    for (Upload upload : uploads) {
+      String fileName = objectName(upload.url());
+      if (knownObjects.getIfPresent(fileName) == null) {
+        pending.putIfAbsent(fileName, upload);
+      }
+    }
+    if (pending.size() < uploads.size()) {
+      uploadsSkipped.increment(uploads.size() - pending.size());
+      log.debug("Skipping {} of {} uploads already in storage", uploads.size() - pending.size(), uploads.size());
+    }
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    String authKey = authKey();
+    try {
+      Flux.fromIterable(pending.entrySet())
+          .flatMap(entry -> upload(entry.getValue(), entry.getKey(), authKey)
+              .doOnNext(fileName -> knownObjects.put(fileName, Boolean.TRUE)), uploadConcurrency)
+          .then()
+          .block();
+    } catch (Exception ex) {
+      throw uploadFailure(ex);
+    }
+  }
+
+  @Override
+  public void deleteFiles(Collection<String> urls) {
+    List<String> fileNames = urls.stream().map(this::objectName).filter(Objects::nonNull).toList();
+    if (!fileNames.isEmpty()) {
+      delete(fileNames, authKey()).block(Duration.ofSeconds(30));
+      knownObjects.invalidateAll(fileNames);
+    }
+  }
+
+  private Mono<String> upload(Upload upload, String fileName, String authKey) {
+    String uploadUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucket, fileName);
+
+    // Streamed from the multipart part (or a spooled temp file) in fixed-size chunks, never buffered whole
+    Flux<DataBuffer> body = DataBufferUtils.readInputStream(upload.content()::getInputStream, bufferFactory, UPLOAD_CHUNK_SIZE)
+        .subscribeOn(Schedulers.boundedElastic())
+        .onErrorMap(IOException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot read file bytes", e));
+
+    Mono<String> request = webClient.put()
+        .uri(uploadUrl)
+        .header("Authorization", "Bearer " + authKey)
+        .header("Content-Type", upload.contentType() != null ? upload.contentType() : "application/octet-stream")
+        .header("x-upsert", "true")
+        .contentLength(upload.size())
+        .body(BodyInserters.fromDataBuffers(body))
+        .retrieve()
+        .onStatus(HttpStatusCode::isError, res ->
+            res.bodyToMono(String.class).defaultIfEmpty("Upload failed").flatMap(msg -> {
+                String errorMsg = "Supabase upload failed: " + msg;
+                if (msg.contains("row-level security") || msg.contains("RLS") || res.statusCode().value() == 403) {
+                  errorMsg += " (Hint: Make sure you're using Service Role Key, not Anon Key. Also check RLS policies on the bucket)";
+                }
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_GATEWAY, errorMsg));
+            })
+        )
+        .toBodilessEntity()
+        .thenReturn(fileName);
+
+    // Timed from subscription, so waiting for a concurrency slot is not counted
+    return Mono.defer(() -> {
+      Timer.Sample sample = Timer.start(meterRegistry);
+      return request.doOnEach(signal -> {
+        if (signal.isOnComplete() || signal.isOnError()) {
+          sample.stop(Timer.builder("storage.upload")
+              .description("Supabase storage upload latency")
+              .tag("outcome", signal.isOnError() ? "error" : "success")
+              .register(meterRegistry));
+          if (signal.isOnComplete()) {
+            uploadSize.record(upload.size());
+          }
+        }
+      });
+    });
+  }
+
+  private Mono<Void> delete(List<String> fileNames, String authKey) {
+    return webClient.method(HttpMethod.DELETE)
+        .uri(String.format("%s/storage/v1/object/%s", supabaseUrl, bucket))
+        .header("Authorization", "Bearer " + authKey)
+        .bodyValue(Map.of("prefixes", fileNames))
+        .retrieve()
+        .toBodilessEntity()
+        .then();
+  }
+
+  private String authKey() {
     if (supabaseUrl == null || supabaseUrl.isEmpty()) {
       throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Supabase URL is not configured");
     }
@@ -38,60 +205,23 @@ public class SupabaseStorageService {
       throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
           "Supabase API key or Service Role Key is not configured");
     }
-    
-    String original = file.getOriginalFilename() != null ? file.getOriginalFilename() : "file.bin";
-    String sanitizedOriginal = original.replaceAll("[^a-zA-Z0-9._-]", "_");
-    String fileName = System.currentTimeMillis() + "_" + sanitizedOriginal;
-    String uploadUrl = String.format("%s/storage/v1/object/%s/%s", supabaseUrl, bucket, fileName);
-
-    byte[] bytes;
-    try {
-      bytes = file.getBytes();
-    } catch (IOException e) {
-      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot read file bytes", e);
-    }
-
-    try {
-      webClient.put()
-          .uri(uploadUrl)
-          .header("Authorization", "Bearer " + authKey)
-          .header("Content-Type", file.getContentType() != null ? file.getContentType() : "application/octet-stream")
-          .header("x-upsert", "true")
-          .bodyValue(bytes)
-          .retrieve()
-          .onStatus(HttpStatusCode::isError, res ->
-              res.bodyToMono(String.class).defaultIfEmpty("Upload failed").flatMap(msg -> {
-                  String errorMsg = "Supabase upload failed: " + msg;
-                  if (msg.contains("row-level security") || msg.contains("RLS") || res.statusCode().value() == 403) {
-                    errorMsg += " (Hint: Make sure you're using Service Role Key, not Anon Key. Also check RLS policies on the bucket)";
-                  }
-                  return Mono.error(new ResponseStatusException(HttpStatus.BAD_GATEWAY, errorMsg));
-              })
-          )
-          .toBodilessEntity()
-          .block();
+    return authKey;
+  }
 
-      return String.format("%s/storage/v1/object/public/%s/%s", supabaseUrl, bucket, fileName);
+  private String publicUrl(String fileName) {
+    return String.format("%s/storage/v1/object/public/%s/%s", supabaseUrl, bucket, fileName);
+  }
 
-    } catch (Exception ex) {
-      throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, 
-          "Unexpected error while uploading to Supabase: " + ex.getMessage(), ex);
-    }
+  private String objectName(String url) {
+    String prefix = publicUrl("");
+    return url != null && url.startsWith(prefix) && url.length() > prefix.length() ? url.substring(prefix.length()) : null;
   }
 
-  public String[] uploadFiles(MultipartFile[] files) {
-    String[] urls = new String[files.length];
-    for (int i = 0; i < files.length; i++) {
-      MultipartFile file = files[i];
-      
-      if (file.isEmpty()) {
-        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
-            String.format("File at index %d is empty", i));
-      }
-      
-      urls[i] = uploadFile(file);
+  private static ResponseStatusException uploadFailure(Exception ex) {
+    if (ex instanceof ResponseStatusException rse && rse.getStatusCode().value() == HttpStatus.BAD_REQUEST.value()) {
+      return rse;
     }
-    
-    return urls;
+    return new ResponseStatusException(HttpStatus.BAD_GATEWAY, 
+        "Unexpected error while uploading to Supabase: " + ex.getMessage(), ex);
   }
-}
\ No newline at end of file
+}
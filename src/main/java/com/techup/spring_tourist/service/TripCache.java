@@ -0,0 +1,133 @@
+package com.techup.spring_tourist.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.entity.User;
+import com.techup.spring_tourist.event.TripChangedEvent;
+import com.techup.spring_tourist.repository.TripRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded read-through cache of trips by id. Entries are detached copies that carry the
+ * author's public fields, so serving a hit needs no persistence context and no query.
+ * Updates and deletes invalidate the entry once their transaction commits; a load that overlapped
+ * an invalidation of the same trip returns what it read but does not cache it.
+ * Hit/miss/eviction counts are published as the {@code cache.*} meters with {@code cache=trips}.
+ */
+@Component
+public class TripCache {
+
+  private static final int GENERATION_STRIPES = 4096;
+
+  private final TripRepository tripRepository;
+  private final Cache<Long, Trip> cache;
+  // Bumped by every invalidation of a trip in the stripe; bounded memory, per-trip in practice
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+  public TripCache(
+      TripRepository tripRepository,
+      MeterRegistry meterRegistry,
+      @Value("${trips.cache.maximum-size:10000}") long maximumSize,
+      @Value("${trips.cache.ttl:PT10M}") Duration ttl) {
+    this.tripRepository = tripRepository;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "trips");
+  }
+
+  // Loads run outside Caffeine's per-entry lock, so a miss never blocks (or pins a virtual thread) inside it
+  public Optional<Trip> get(Long id) {
+    return getAll(List.of(id)).stream().findFirst();
+  }
+
+  /** Trips for the given ids in the same order; ids that do not exist are skipped. Misses load in one query. */
+  public List<Trip> getAll(Collection<Long> ids) {
+    Map<Long, Trip> found = new HashMap<>(cache.getAllPresent(ids));
+    List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+    if (!missing.isEmpty()) {
+      Map<Long, Long> generationsBefore = new HashMap<>();
+      missing.forEach(id -> generationsBefore.put(id, generations.get(stripe(id))));
+      for (Trip trip : tripRepository.findWithAuthorByIdIn(missing)) {
+        Trip copy = snapshot(trip);
+        found.put(copy.getId(), copy);
+        cacheUnlessInvalidated(copy, generationsBefore.get(copy.getId()));
+      }
+    }
+    return ids.stream().map(found::get).filter(trip -> trip != null).toList();
+  }
+
+  /** The cached copy, if any; never loads. */
+  public Optional<Trip> peek(Long id) {
+    return Optional.ofNullable(cache.getIfPresent(id));
+  }
+
+  public void invalidate(Long id) {
+    generations.incrementAndGet(stripe(id));
+    cache.invalidate(id);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTripChanged(TripChangedEvent event) {
+    if (!event.isCreated()) {
+      invalidate(event.getTripId());
+    }
+  }
+
+  // Checked again after the put: an invalidation between the check and the put would otherwise be lost
+  private void cacheUnlessInvalidated(Trip trip, long generationBefore) {
+    int stripe = stripe(trip.getId());
+    if (generations.get(stripe) != generationBefore) {
+      return;
+    }
+    cache.put(trip.getId(), trip);
+    if (generations.get(stripe) != generationBefore) {
+      cache.asMap().remove(trip.getId(), trip);
+    }
+  }
+
+  private static int stripe(Long id) {
+    return Math.floorMod(Long.hashCode(id), GENERATION_STRIPES);
+  }
+
+  private static Trip snapshot(Trip trip) {
+    Trip copy = new Trip();
+    copy.setId(trip.getId());
+    copy.setTitle(trip.getTitle());
+    copy.setDescription(trip.getDescription());
+    copy.setPhotos(trip.getPhotos() != null ? trip.getPhotos().clone() : null);
+    copy.setThumbnails(trip.getThumbnails() != null ? trip.getThumbnails().clone() : null);
+    copy.setMediumPhotos(trip.getMediumPhotos() != null ? trip.getMediumPhotos().clone() : null);
+    copy.setTags(trip.getTags() != null ? trip.getTags().clone() : null);
+    copy.setLocation(trip.getLocation());
+    copy.setLatitude(trip.getLatitude());
+    copy.setLongitude(trip.getLongitude());
+    copy.setCreatedAt(trip.getCreatedAt());
+    copy.setUpdatedAt(trip.getUpdatedAt());
+
+    User author = trip.getAuthor();
+    if (author != null) {
+      User authorCopy = new User();
+      authorCopy.setId(author.getId());
+      authorCopy.setEmail(author.getEmail());
+      authorCopy.setDisplayName(author.getDisplayName());
+      copy.setAuthor(authorCopy);
+    }
+    return copy;
+  }
+}
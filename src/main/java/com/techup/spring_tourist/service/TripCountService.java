@@ -0,0 +1,126 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.event.TripChangedEvent;
+import com.techup.spring_tourist.repository.TripRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Total number of trips for the unfiltered listing without a {@code COUNT(*)} per request.
+ * The value is re-read from the database at most every {@code trips.count.max-age} and
+ * adjusted in between by this instance's own creates and deletes, so it is never staler
+ * than max-age with respect to other instances. With {@code trips.count.use-planner-estimate}
+ * the refresh reads {@code pg_class.reltuples} instead of scanning the table.
+ * <p>
+ * It also keeps the version list ETags are built from: the latest {@code updated_at} and the count,
+ * read together so every instance derives the same version from the same rows. This instance's own
+ * writes re-read the watermark on the next request; other instances' show up within max-age.
+ */
+@Slf4j
+@Service
+public class TripCountService {
+
+  @Value("${trips.count.max-age:PT30S}")
+  private Duration maxAge;
+
+  @Value("${trips.count.use-planner-estimate:false}")
+  private boolean usePlannerEstimate;
+
+  private final TripRepository tripRepository;
+  private final JdbcTemplate jdbcTemplate;
+
+  private final AtomicLong count = new AtomicLong();
+  private final ReentrantLock refreshLock = new ReentrantLock();
+  private volatile OffsetDateTime latestUpdate;
+  private volatile boolean watermarkStale;
+  private volatile long refreshedAtNanos;
+  private volatile boolean loaded;
+
+  public TripCountService(TripRepository tripRepository, JdbcTemplate jdbcTemplate) {
+    this.tripRepository = tripRepository;
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public long totalTrips() {
+    if (!loaded || System.nanoTime() - refreshedAtNanos > maxAge.toNanos()) {
+      refresh();
+    }
+    return count.get();
+  }
+
+  /** Changes whenever a list response can change; never staler than {@code trips.count.max-age}. */
+  public String collectionVersion() {
+    long total = totalTrips();
+    if (watermarkStale) {
+      refreshWatermark();
+    }
+    OffsetDateTime latest = latestUpdate;
+    return (latest != null ? latest.toInstant().toString() : "-") + "/" + total;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTripChanged(TripChangedEvent event) {
+    if (event.isCreated()) {
+      count.incrementAndGet();
+    } else if (event.isDeleted()) {
+      count.decrementAndGet();
+    }
+    watermarkStale = true;
+  }
+
+  // A ReentrantLock rather than synchronized: the query inside would pin a virtual thread to its carrier
+  private void refresh() {
+    refreshLock.lock();
+    try {
+      // Another caller may have refreshed while this one waited for the lock
+      if (loaded && System.nanoTime() - refreshedAtNanos <= maxAge.toNanos()) {
+        return;
+      }
+      watermarkStale = false;
+      latestUpdate = tripRepository.findMaxUpdatedAt();
+      count.set(usePlannerEstimate ? estimate() : tripRepository.count());
+      refreshedAtNanos = System.nanoTime();
+      loaded = true;
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  // MAX(updated_at) is one probe of idx_trips_updated_at, unlike the count
+  private void refreshWatermark() {
+    refreshLock.lock();
+    try {
+      if (!watermarkStale) {
+        return;
+      }
+      // Cleared before the read, so a write committing meanwhile marks it stale again
+      watermarkStale = false;
+      latestUpdate = tripRepository.findMaxUpdatedAt();
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  private long estimate() {
+    try {
+      Long estimate = jdbcTemplate.queryForObject(
+          "SELECT reltuples::bigint FROM pg_class WHERE oid = 'trips'::regclass", Long.class);
+      // -1 until the table has been vacuumed or analyzed at least once
+      if (estimate != null && estimate >= 0) {
+        return estimate;
+      }
+    } catch (DataAccessException e) {
+      log.warn("Planner row estimate for trips unavailable: {}", e.getMessage());
+    }
+    return tripRepository.count();
+  }
+}
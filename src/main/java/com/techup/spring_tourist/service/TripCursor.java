@@ -0,0 +1,53 @@
+package com.techup.spring_tourist.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for trip listings ordered by {@code (created_at DESC, id DESC)}.
+ * Clients get it back as {@code nextCursor} and send it unchanged to fetch the following page.
+ */
+public final class TripCursor {
+
+  private final OffsetDateTime createdAt;
+  private final long id;
+
+  public TripCursor(OffsetDateTime createdAt, long id) {
+    this.createdAt = createdAt;
+    this.id = id;
+  }
+
+  public static TripCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split(":");
+      if (parts.length != 3) {
+        throw new IllegalArgumentException("Malformed cursor");
+      }
+      Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+      return new TripCursor(OffsetDateTime.ofInstant(instant, ZoneOffset.UTC), Long.parseLong(parts[2]));
+    } catch (IllegalArgumentException | java.time.DateTimeException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+  }
+
+  public String encode() {
+    Instant instant = createdAt.toInstant();
+    String raw = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public OffsetDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public long getId() {
+    return id;
+  }
+}
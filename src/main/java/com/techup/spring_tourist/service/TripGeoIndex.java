@@ -0,0 +1,133 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.event.TripChangedEvent;
+import com.techup.spring_tourist.repository.TripLocationSource;
+import com.techup.spring_tourist.repository.TripRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * In-memory grid index of trip coordinates for the nearby and bounding-box queries.
+ * While the index is building, queries read the rows inside the bounding box from SQL instead.
+ */
+@Component
+public class TripGeoIndex extends InMemoryTripIndex<GeoCellIndex> {
+
+  @Value("${trips.geo.index.enabled:true}")
+  private boolean enabled;
+
+  @Value("${trips.geo.index.cell-degrees:0.1}")
+  private double cellDegrees;
+
+  private final TripRepository tripRepository;
+
+  public TripGeoIndex(TripRepository tripRepository, PlatformTransactionManager transactionManager) {
+    super(transactionManager);
+    this.tripRepository = tripRepository;
+  }
+
+  public List<Hit> nearest(double latitude, double longitude, double radiusKm, int limit) {
+    GeoCellIndex current = usableIndex();
+    if (current == null) {
+      double[] box = GeoCellIndex.boundingBox(latitude, longitude, radiusKm);
+      current = loadBox(box[0], box[1], box[2], box[3]);
+    }
+    return current.nearest(latitude, longitude, radiusKm, limit);
+  }
+
+  public List<Hit> within(double minLat, double maxLat, double minLng, double maxLng, int limit) {
+    GeoCellIndex current = usableIndex();
+    if (current == null) {
+      current = loadBox(minLat, maxLat, minLng, minLng <= maxLng ? maxLng : maxLng + 360);
+    }
+    return current.within(minLat, maxLat, minLng, maxLng, limit);
+  }
+
+  @Scheduled(fixedDelayString = "${trips.geo.index.consistency-check-interval:PT5M}",
+      initialDelayString = "${trips.geo.index.consistency-check-interval:PT5M}")
+  public void checkConsistency() {
+    reconcile();
+  }
+
+  @Override
+  protected boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  protected GeoCellIndex createIndex() {
+    return new GeoCellIndex(cellDegrees);
+  }
+
+  @Override
+  protected void load(GeoCellIndex target) {
+    try (Stream<TripLocationSource> sources = tripRepository.streamLocationSources()) {
+      sources.forEach(source -> put(target, source));
+    }
+  }
+
+  @Override
+  protected void apply(GeoCellIndex target, TripChangedEvent event) {
+    if (event.isDeleted()) {
+      target.remove(event.getTripId());
+      return;
+    }
+    Trip trip = event.getTrip();
+    target.put(trip.getId(), trip.getLatitude(), trip.getLongitude(), trip.getUpdatedAt());
+  }
+
+  @Override
+  protected int size(GeoCellIndex target) {
+    return target.size();
+  }
+
+  @Override
+  protected long expectedSize() {
+    return tripRepository.countWithLocation();
+  }
+
+  @Override
+  protected void catchUp(GeoCellIndex current) {
+    OffsetDateTime watermark = current.getMaxUpdatedAt();
+    if (watermark == null) {
+      return;
+    }
+    List<TripLocationSource> changed = tripRepository.findLocationSourcesUpdatedAfter(watermark);
+    applyToCurrent(target -> changed.forEach(source -> put(target, source)));
+  }
+
+  // SQL fallback while the index is building: the rows inside the box, served by idx_trips_lat_lng
+  private GeoCellIndex loadBox(double minLat, double maxLat, double minLng, double maxLng) {
+    GeoCellIndex box = new GeoCellIndex(cellDegrees);
+    if (minLng < -180) {
+      tripRepository.findLocationSourcesWithin(minLat, maxLat, minLng + 360, 180).forEach(source -> put(box, source));
+      minLng = -180;
+    }
+    if (maxLng > 180) {
+      tripRepository.findLocationSourcesWithin(minLat, maxLat, -180, maxLng - 360).forEach(source -> put(box, source));
+      maxLng = 180;
+    }
+    tripRepository.findLocationSourcesWithin(minLat, maxLat, minLng, maxLng).forEach(source -> put(box, source));
+    return box;
+  }
+
+  private static void put(GeoCellIndex target, TripLocationSource source) {
+    target.put(source.getId(), source.getLatitude(), source.getLongitude(), source.getUpdatedAt());
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class Hit {
+    private final long tripId;
+    private final double distanceKm;
+  }
+}
@@ -0,0 +1,190 @@
+package com.techup.spring_tourist.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techup.spring_tourist.dto.TripImportResult;
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.entity.User;
+import com.techup.spring_tourist.event.TripChangedEvent;
+import com.techup.spring_tourist.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk trip import from a JSON array or NDJSON stream. Rows are read one at a time and
+ * inserted {@code trips.import.batch-size} per transaction, which Hibernate sends as JDBC
+ * batches of {@code hibernate.jdbc.batch_size}. Invalid rows are reported and skipped; if a
+ * batch fails in the database its rows are retried one by one so only the bad rows are lost.
+ */
+@Slf4j
+@Service
+public class TripImportService {
+
+  @Value("${trips.import.batch-size:500}")
+  private int batchSize;
+
+  @Value("${trips.import.max-reported-errors:1000}")
+  private int maxReportedErrors;
+
+  private final UserRepository userRepository;
+  private final EntityManager entityManager;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public TripImportService(UserRepository userRepository, EntityManager entityManager, ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher) {
+    this.userRepository = userRepository;
+    this.entityManager = entityManager;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.eventPublisher = eventPublisher;
+  }
+
+  public TripImportResult importTrips(InputStream body, String userEmail) {
+    Long authorId = userRepository.findByEmail(userEmail)
+        .map(User::getId)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + userEmail));
+
+    Progress progress = new Progress();
+    List<PendingRow> batch = new ArrayList<>(batchSize);
+    long row = 0;
+    // A root-level array is unwrapped, so the same iterator reads NDJSON and JSON arrays
+    try (MappingIterator<Trip> rows = objectMapper.readerFor(Trip.class).readValues(body)) {
+      while (true) {
+        Trip trip;
+        try {
+          if (!rows.hasNextValue()) {
+            break;
+          }
+          row++;
+          trip = rows.nextValue();
+        } catch (JsonMappingException e) {
+          // The row was well-formed JSON of the wrong shape; the parser can continue after it
+          progress.reject(row, "Invalid row: " + e.getOriginalMessage());
+          continue;
+        }
+
+        String error = validate(trip);
+        if (error != null) {
+          progress.reject(row, error);
+          continue;
+        }
+        batch.add(new PendingRow(row, trip));
+        if (batch.size() >= batchSize) {
+          insert(batch, authorId, progress);
+          batch.clear();
+        }
+      }
+    } catch (JsonProcessingException e) {
+      progress.reject(row, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+    } catch (IOException e) {
+      progress.reject(row, "Could not read request body, import stopped: " + e.getMessage());
+    }
+    insert(batch, authorId, progress);
+
+    log.info("Imported {} trips for {}, {} rows rejected", progress.imported, userEmail, progress.failed);
+    return new TripImportResult(progress.imported, progress.failed, progress.errors);
+  }
+
+  private void insert(List<PendingRow> batch, Long authorId, Progress progress) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> persistAll(batch, authorId));
+      progress.imported += batch.size();
+    } catch (RuntimeException e) {
+      log.warn("Import batch of {} rows failed, retrying row by row: {}", batch.size(), e.getMessage());
+      for (PendingRow pending : batch) {
+        try {
+          transactionTemplate.executeWithoutResult(status -> persistAll(List.of(pending), authorId));
+          progress.imported++;
+        } catch (RuntimeException rowFailure) {
+          progress.reject(pending.row(), "Could not save row: " + rowFailure.getMessage());
+        }
+      }
+    }
+  }
+
+  private void persistAll(List<PendingRow> rows, Long authorId) {
+    User author = entityManager.getReference(User.class, authorId);
+    List<Trip> persisted = new ArrayList<>(rows.size());
+    try {
+      for (PendingRow pending : rows) {
+        Trip trip = copyForInsert(pending.trip(), author);
+        entityManager.persist(trip);
+        persisted.add(trip);
+      }
+      entityManager.flush();
+    } finally {
+      // Keeps the persistence context from growing with the import
+      entityManager.clear();
+    }
+    persisted.forEach(trip -> eventPublisher.publishEvent(TripChangedEvent.created(trip)));
+  }
+
+  // A fresh entity per attempt: a failed persist leaves its id and state on the instance
+  private static Trip copyForInsert(Trip source, User author) {
+    Trip trip = new Trip();
+    trip.setTitle(source.getTitle());
+    trip.setDescription(source.getDescription());
+    trip.setPhotos(source.getPhotos() != null ? source.getPhotos() : new String[0]);
+    trip.setTags(source.getTags() != null ? source.getTags() : new String[0]);
+    trip.setLocation(source.getLocation());
+    trip.setLatitude(source.getLatitude());
+    trip.setLongitude(source.getLongitude());
+    trip.setAuthor(author);
+    return trip;
+  }
+
+  private static String validate(Trip trip) {
+    if (trip == null) {
+      return "Row is null";
+    }
+    if (trip.getTitle() == null || trip.getTitle().trim().isEmpty()) {
+      return "Title is required";
+    }
+    if (trip.getLocation() == null || trip.getLocation().trim().isEmpty()) {
+      return "Location is required";
+    }
+    if ((trip.getLatitude() == null) != (trip.getLongitude() == null)) {
+      return "Latitude and longitude must be given together";
+    }
+    if (trip.getLatitude() != null && (trip.getLatitude() < -90 || trip.getLatitude() > 90
+        || trip.getLongitude() < -180 || trip.getLongitude() > 180)) {
+      return "Latitude or longitude out of range";
+    }
+    return null;
+  }
+
+  private record PendingRow(long row, Trip trip) {
+  }
+
+  private class Progress {
+    private long imported;
+    private long failed;
+    private final List<TripImportResult.RowError> errors = new ArrayList<>();
+
+    void reject(long row, String error) {
+      failed++;
+      if (errors.size() < maxReportedErrors) {
+        errors.add(new TripImportResult.RowError(row, error));
+      }
+    }
+  }
+}
@@ -0,0 +1,429 @@
+package com.techup.spring_tourist.service;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Term to postings map over trip title, description, location and tags, with the same semantics
+ * as the SQL search ({@link TripSearchQuery}): every word outside quotes is a prefix match, quoted
+ * words are exact and must be adjacent, and all must match. A trip whose {@code search_text}
+ * contains the whole keyword (three or more characters) matches too, found through character
+ * trigram bitmaps and confirmed against the stored text, as {@code LIKE} over pg_trgm does.
+ * Hits are ranked with the same field weights as the tsvector (title 1.0, location/tags 0.4,
+ * description 0.2), substring-only hits last, and ties go to the newest document.
+ */
+final class TripInvertedIndex {
+
+  static final byte TITLE = 4;
+  static final byte LOCATION_OR_TAG = 2;
+  static final byte DESCRIPTION = 1;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final TreeMap<String, PostingsList> postings = new TreeMap<>();
+  private final Map<Long, RoaringBitmap> trigrams = new HashMap<>();
+  private final Map<Long, Integer> docByTripId = new HashMap<>();
+  private long[] tripIdByDoc = new long[1024];
+  private String[][] termsByDoc = new String[1024][];
+  private Text[] textByDoc = new Text[1024];
+  private int nextDoc;
+  private OffsetDateTime maxUpdatedAt;
+
+  void put(long tripId, String title, String description, String location, String[] tags, OffsetDateTime updatedAt) {
+    Map<String, Byte> terms = new HashMap<>();
+    addTerms(terms, title, TITLE);
+    addTerms(terms, location, LOCATION_OR_TAG);
+    if (tags != null) {
+      for (String tag : tags) {
+        addTerms(terms, tag, LOCATION_OR_TAG);
+      }
+    }
+    addTerms(terms, description, DESCRIPTION);
+    Text text = Text.of(title, description, location, tags);
+
+    lock.writeLock().lock();
+    try {
+      Integer existing = docByTripId.get(tripId);
+      int doc;
+      if (existing != null) {
+        doc = existing;
+        removePostings(doc);
+      } else {
+        doc = allocateDoc(tripId);
+      }
+
+      for (Map.Entry<String, Byte> term : terms.entrySet()) {
+        postings.computeIfAbsent(term.getKey(), k -> new PostingsList()).add(doc, term.getValue());
+      }
+      termsByDoc[doc] = terms.keySet().toArray(new String[0]);
+      textByDoc[doc] = text;
+      for (long trigram : trigramsOf(text.searchText())) {
+        trigrams.computeIfAbsent(trigram, k -> new RoaringBitmap()).add(doc);
+      }
+
+      if (updatedAt != null && (maxUpdatedAt == null || updatedAt.isAfter(maxUpdatedAt))) {
+        maxUpdatedAt = updatedAt;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void remove(long tripId) {
+    lock.writeLock().lock();
+    try {
+      Integer doc = docByTripId.remove(tripId);
+      if (doc != null) {
+        removePostings(doc);
+        termsByDoc[doc] = null;
+        textByDoc[doc] = null;
+        tripIdByDoc[doc] = 0;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Returns the matching trip ids for one page plus the total number of matches. */
+  TripSearchIndex.Hits search(String keyword, long offset, int limit) {
+    Query query = Query.parse(keyword);
+    if (query.isEmpty()) {
+      return new TripSearchIndex.Hits(List.of(), 0);
+    }
+
+    lock.readLock().lock();
+    try {
+      // (score << 32 | doc), so one ascending sort orders by score and then by recency
+      long[] ranked = new long[16];
+      int hits = 0;
+      RoaringBitmap termHits = new RoaringBitmap();
+
+      List<TermMatches> matches = termMatches(query);
+      if (matches != null) {
+        matches.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        TermMatches smallest = matches.get(0);
+        candidates:
+        for (int i = 0; i < smallest.size(); i++) {
+          int doc = smallest.docs[i];
+          int score = weight(smallest.fields[i]);
+          for (int m = 1; m < matches.size(); m++) {
+            byte fields = matches.get(m).fieldsOf(doc);
+            if (fields == 0) {
+              continue candidates;
+            }
+            score += weight(fields);
+          }
+          if (!query.phrases.isEmpty() && !textByDoc[doc].containsPhrases(query.phrases)) {
+            continue;
+          }
+          ranked = append(ranked, hits++, ((long) score << 32) | doc);
+          termHits.add(doc);
+        }
+      }
+
+      if (query.substring != null) {
+        for (IntIterator docs = substringCandidates(query.substring).getIntIterator(); docs.hasNext(); ) {
+          int doc = docs.next();
+          if (!termHits.contains(doc) && textByDoc[doc].searchText().contains(query.substring)) {
+            ranked = append(ranked, hits++, doc);
+          }
+        }
+      }
+      Arrays.sort(ranked, 0, hits);
+
+      List<Long> page = new ArrayList<>((int) Math.min(limit, hits));
+      for (long i = hits - 1 - offset; i >= 0 && page.size() < limit; i--) {
+        page.add(tripIdByDoc[(int) ranked[(int) i]]);
+      }
+      return new TripSearchIndex.Hits(page, hits);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  int size() {
+    lock.readLock().lock();
+    try {
+      return docByTripId.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  OffsetDateTime getMaxUpdatedAt() {
+    lock.readLock().lock();
+    try {
+      return maxUpdatedAt;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // Null when the query has no words, or when one of them matches nothing
+  private List<TermMatches> termMatches(Query query) {
+    if (query.prefixes.isEmpty() && query.exact.isEmpty()) {
+      return null;
+    }
+    List<TermMatches> matches = new ArrayList<>(query.prefixes.size() + query.exact.size());
+    for (String term : query.prefixes) {
+      matches.add(prefixMatches(term));
+    }
+    for (String term : query.exact) {
+      PostingsList list = postings.get(term);
+      matches.add(list != null ? TermMatches.of(list) : TermMatches.EMPTY);
+    }
+    for (TermMatches termMatches : matches) {
+      if (termMatches.size() == 0) {
+        return null;
+      }
+    }
+    return matches;
+  }
+
+  // Every trigram of the substring must occur in the text; candidates are confirmed by the caller
+  private RoaringBitmap substringCandidates(String substring) {
+    List<RoaringBitmap> bitmaps = new ArrayList<>();
+    for (long trigram : trigramsOf(substring)) {
+      RoaringBitmap docs = trigrams.get(trigram);
+      if (docs == null) {
+        return new RoaringBitmap();
+      }
+      bitmaps.add(docs);
+    }
+    bitmaps.sort((a, b) -> Integer.compare(a.getCardinality(), b.getCardinality()));
+    RoaringBitmap candidates = bitmaps.get(0).clone();
+    for (int i = 1; i < bitmaps.size() && !candidates.isEmpty(); i++) {
+      candidates.and(bitmaps.get(i));
+    }
+    return candidates;
+  }
+
+  private TermMatches prefixMatches(String prefix) {
+    SortedMap<String, PostingsList> range = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+    if (range.size() == 1) {
+      PostingsList list = range.values().iterator().next();
+      return TermMatches.of(list);
+    }
+    return TermMatches.union(range.values());
+  }
+
+  private int allocateDoc(long tripId) {
+    if (nextDoc == tripIdByDoc.length) {
+      int capacity = tripIdByDoc.length * 2;
+      tripIdByDoc = Arrays.copyOf(tripIdByDoc, capacity);
+      termsByDoc = Arrays.copyOf(termsByDoc, capacity);
+      textByDoc = Arrays.copyOf(textByDoc, capacity);
+    }
+    int doc = nextDoc++;
+    tripIdByDoc[doc] = tripId;
+    docByTripId.put(tripId, doc);
+    return doc;
+  }
+
+  private void removePostings(int doc) {
+    Text text = textByDoc[doc];
+    if (text != null) {
+      for (long trigram : trigramsOf(text.searchText())) {
+        RoaringBitmap docs = trigrams.get(trigram);
+        if (docs != null) {
+          docs.remove(doc);
+          if (docs.isEmpty()) {
+            trigrams.remove(trigram);
+          }
+        }
+      }
+    }
+    String[] terms = termsByDoc[doc];
+    if (terms == null) {
+      return;
+    }
+    for (String term : terms) {
+      PostingsList list = postings.get(term);
+      if (list != null) {
+        list.remove(doc);
+        if (list.isEmpty()) {
+          postings.remove(term);
+        }
+      }
+    }
+  }
+
+  private static void addTerms(Map<String, Byte> terms, String text, byte field) {
+    for (String token : TripTokenizer.tokenize(text)) {
+      terms.merge(token, field, (a, b) -> (byte) (a | b));
+    }
+  }
+
+  private static long[] append(long[] ranked, int at, long entry) {
+    if (at == ranked.length) {
+      ranked = Arrays.copyOf(ranked, ranked.length * 2);
+    }
+    ranked[at] = entry;
+    return ranked;
+  }
+
+  // Three UTF-16 chars packed into one long
+  private static Set<Long> trigramsOf(String text) {
+    Set<Long> result = new HashSet<>();
+    for (int i = 0; i + 3 <= text.length(); i++) {
+      result.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+    }
+    return result;
+  }
+
+  private static int weight(byte fields) {
+    if ((fields & TITLE) != 0) {
+      return 10;
+    }
+    if ((fields & LOCATION_OR_TAG) != 0) {
+      return 4;
+    }
+    return 2;
+  }
+
+  /** The keyword split as {@link TripSearchQuery} splits it, with words segmented like the indexed text. */
+  private static final class Query {
+    private final Set<String> prefixes = new LinkedHashSet<>();
+    private final Set<String> exact = new LinkedHashSet<>();
+    private final List<List<String>> phrases = new ArrayList<>();
+    private String substring;
+
+    static Query parse(String keyword) {
+      Query query = new Query();
+      String normalized = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+      boolean inPhrase = false;
+      for (String segment : normalized.split("\"", -1)) {
+        List<String> words = TripTokenizer.tokenize(segment);
+        if (inPhrase) {
+          query.exact.addAll(words);
+          if (words.size() > 1) {
+            query.phrases.add(words);
+          }
+        } else {
+          query.prefixes.addAll(words);
+        }
+        inPhrase = !inPhrase;
+      }
+      query.substring = TripSearchQuery.parse(keyword).getSubstring();
+      return query;
+    }
+
+    boolean isEmpty() {
+      return prefixes.isEmpty() && exact.isEmpty() && substring == null;
+    }
+  }
+
+  /**
+   * A trip's {@code search_text}, kept for substring and phrase checks:
+   * lower(title || ' ' || description || ' ' || location || ' ' || tags), with the description's bounds.
+   */
+  private record Text(String searchText, int descriptionStart, int descriptionEnd) {
+
+    static Text of(String title, String description, String location, String[] tags) {
+      String tagText = tags == null ? "" : String.join(" ", Arrays.stream(tags).filter(tag -> tag != null).toList());
+      // Lower-cased part by part: lower-casing can change a string's length, and the bounds must hold
+      String head = lower(title) + " ";
+      String body = lower(description);
+      String searchText = head + body + " " + lower(location) + " " + lower(tagText);
+      return new Text(searchText, head.length(), head.length() + body.length());
+    }
+
+    // Words in tsvector position order: title, location and tags, then description
+    boolean containsPhrases(List<List<String>> phrases) {
+      List<String> words = new ArrayList<>(TripTokenizer.tokenize(searchText.substring(0, descriptionStart)));
+      words.addAll(TripTokenizer.tokenize(searchText.substring(descriptionEnd)));
+      words.addAll(TripTokenizer.tokenize(searchText.substring(descriptionStart, descriptionEnd)));
+      for (List<String> phrase : phrases) {
+        if (Collections.indexOfSubList(words, phrase) < 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static String lower(String text) {
+      return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+  }
+
+  /** Postings of every term sharing a prefix, merged into one sorted doc list. */
+  private static final class TermMatches {
+    static final TermMatches EMPTY = new TermMatches(new int[0], new byte[0], 0);
+
+    private final int[] docs;
+    private final byte[] fields;
+    private final int size;
+
+    private TermMatches(int[] docs, byte[] fields, int size) {
+      this.docs = docs;
+      this.fields = fields;
+      this.size = size;
+    }
+
+    static TermMatches of(PostingsList list) {
+      int[] docs = new int[list.size()];
+      byte[] fields = new byte[list.size()];
+      for (int i = 0; i < list.size(); i++) {
+        docs[i] = list.docAt(i);
+        fields[i] = list.fieldsAt(i);
+      }
+      return new TermMatches(docs, fields, docs.length);
+    }
+
+    static TermMatches union(Collection<PostingsList> lists) {
+      int total = 0;
+      for (PostingsList list : lists) {
+        total += list.size();
+      }
+      long[] packed = new long[total];
+      int n = 0;
+      for (PostingsList list : lists) {
+        for (int i = 0; i < list.size(); i++) {
+          packed[n++] = ((long) list.docAt(i) << 8) | (list.fieldsAt(i) & 0xFF);
+        }
+      }
+      Arrays.sort(packed);
+
+      int[] docs = new int[total];
+      byte[] fields = new byte[total];
+      int size = 0;
+      for (long entry : packed) {
+        int doc = (int) (entry >>> 8);
+        byte flags = (byte) entry;
+        if (size > 0 && docs[size - 1] == doc) {
+          fields[size - 1] |= flags;
+        } else {
+          docs[size] = doc;
+          fields[size] = flags;
+          size++;
+        }
+      }
+      return new TermMatches(docs, fields, size);
+    }
+
+    int size() {
+      return size;
+    }
+
+    byte fieldsOf(int doc) {
+      int position = Arrays.binarySearch(docs, 0, size, doc);
+      return position >= 0 ? fields[position] : 0;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.entity.PendingUpload;
+import com.techup.spring_tourist.entity.Trip;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Write side of trip photos: processes the uploads into variants, records every planned URL as a
+ * {@link PendingUpload}, then uploads all variants concurrently. URLs are content hashes, so a
+ * photo uploaded twice is stored once. The caller completes the pending
+ * record in the transaction that saves the trip, or discards it if the save fails.
+ */
+@Component
+public class TripPhotoUploader {
+
+  private final PhotoProcessor photoProcessor;
+  private final StorageService storageService;
+  private final PendingUploadService pendingUploadService;
+
+  public TripPhotoUploader(PhotoProcessor photoProcessor, StorageService storageService,
+                           PendingUploadService pendingUploadService) {
+    this.photoProcessor = photoProcessor;
+    this.storageService = storageService;
+    this.pendingUploadService = pendingUploadService;
+  }
+
+  public Uploaded upload(MultipartFile[] files) {
+    List<ProcessedPhoto> processed = photoProcessor.process(files);
+    try {
+      int count = processed.size();
+      String[] photos = new String[count];
+      String[] mediumPhotos = new String[count];
+      String[] thumbnails = new String[count];
+      List<StorageService.Upload> uploads = new ArrayList<>(count * 3);
+      for (int i = 0; i < count; i++) {
+        ProcessedPhoto photo = processed.get(i);
+        photos[i] = plan(photo.getOriginal(), uploads);
+        // Undecodable uploads have no variants; the original stands in for them
+        mediumPhotos[i] = photo.isProcessed() ? plan(photo.getMedium(), uploads) : photos[i];
+        thumbnails[i] = photo.isProcessed() ? plan(photo.getThumbnail(), uploads) : photos[i];
+      }
+
+      PendingUpload pending = pendingUploadService.record(uploads.stream()
+          .map(StorageService.Upload::url)
+          .toArray(String[]::new));
+      try {
+        storageService.uploadAll(uploads);
+      } catch (Exception e) {
+        pendingUploadService.discard(pending);
+        throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
+            "Failed to upload photos: " + e.getMessage(), e);
+      }
+      return new Uploaded(photos, mediumPhotos, thumbnails, pending);
+    } finally {
+      processed.forEach(ProcessedPhoto::close);
+    }
+  }
+
+  /** Every stored URL of the trip's photos, all variants included. */
+  public static String[] allUrls(Trip trip) {
+    return Stream.of(trip.getPhotos(), trip.getMediumPhotos(), trip.getThumbnails())
+        .filter(urls -> urls != null)
+        .flatMap(Stream::of)
+        .distinct()
+        .toArray(String[]::new);
+  }
+
+  private String plan(ProcessedPhoto.Variant variant, List<StorageService.Upload> uploads) {
+    String url = storageService.contentUrl(variant.sha256(), variant.filename());
+    uploads.add(variant.toUpload(url));
+    return url;
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class Uploaded {
+    private final String[] photos;
+    private final String[] mediumPhotos;
+    private final String[] thumbnails;
+    private final PendingUpload pending;
+
+    public void applyTo(Trip trip) {
+      trip.setPhotos(photos);
+      trip.setMediumPhotos(mediumPhotos);
+      trip.setThumbnails(thumbnails);
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.techup.spring_tourist.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.event.TripChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Single-trip JSON responses, encoded once per trip version and kept as bytes (plus a gzipped
+ * copy when the body is at least {@code trips.response-cache.gzip-min-size}), so a hot read is
+ * a byte copy to the socket. Entries carry the {@code updated_at} they were encoded from and are
+ * only served for that version; updates and deletes also drop them once committed. Bounded by
+ * total bytes; published as the {@code cache.*} meters with {@code cache=trip-responses}.
+ */
+@Component
+public class TripResponseCache {
+
+  private final TripCache tripCache;
+  private final ObjectMapper objectMapper;
+  private final int gzipMinSize;
+  private final Cache<Long, Encoded> cache;
+
+  public TripResponseCache(
+      TripCache tripCache,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${trips.response-cache.maximum-bytes:67108864}") long maximumBytes,
+      @Value("${trips.response-cache.gzip-min-size:1024}") int gzipMinSize,
+      @Value("${trips.cache.ttl:PT10M}") Duration ttl) {
+    this.tripCache = tripCache;
+    this.objectMapper = objectMapper;
+    this.gzipMinSize = gzipMinSize;
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(maximumBytes)
+        .weigher((Long id, Encoded encoded) -> encoded.weight())
+        .expireAfterWrite(ttl)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "trip-responses");
+  }
+
+  /** The encoded trip at {@code version}, encoding it on a miss; null if the trip no longer exists. */
+  public Encoded get(Long id, OffsetDateTime version) {
+    Encoded encoded = cache.getIfPresent(id);
+    if (encoded != null && encoded.version() != null && encoded.version().isEqual(version)) {
+      return encoded;
+    }
+    Trip trip = tripCache.get(id).orElse(null);
+    if (trip == null) {
+      return null;
+    }
+    // Keyed to the version actually encoded, so a racing update can never be served under it
+    encoded = encode(trip);
+    cache.put(id, encoded);
+    return encoded;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTripChanged(TripChangedEvent event) {
+    if (!event.isCreated()) {
+      cache.invalidate(event.getTripId());
+    }
+  }
+
+  /** True unless the client asks for a format other than JSON (CBOR, Smile), which the converters render. */
+  public static boolean servesJson(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return true;
+    }
+    List<MediaType> accepted;
+    try {
+      accepted = MediaType.parseMediaTypes(accept);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    boolean json = false;
+    for (MediaType type : accepted) {
+      if (type.getSubtype().contains("cbor") || type.getSubtype().contains("smile")) {
+        return false;
+      }
+      json |= type.getQualityValue() > 0 && type.includes(MediaType.APPLICATION_JSON);
+    }
+    return json;
+  }
+
+  public static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      if (parts[0].trim().equalsIgnoreCase("gzip")) {
+        return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+
+  private Encoded encode(Trip trip) {
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(trip);
+      return new Encoded(trip.getUpdatedAt(), json, json.length >= gzipMinSize ? gzip(json) : null);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot encode trip " + trip.getId(), e);
+    }
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 3);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  /** JSON bytes of one trip version; {@code gzip} is null for bodies too small to be worth compressing. */
+  public record Encoded(OffsetDateTime version, byte[] json, byte[] gzip) {
+
+    int weight() {
+      return json.length + (gzip != null ? gzip.length : 0);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.event.TripChangedEvent;
+import com.techup.spring_tourist.repository.TripRepository;
+import com.techup.spring_tourist.repository.TripSearchSource;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * In-memory keyword search over trips, so searches do not take a connection from the pool.
+ * While the index is building {@link #search} returns empty and callers use the SQL search.
+ */
+@Component
+public class TripSearchIndex extends InMemoryTripIndex<TripInvertedIndex> {
+
+  @Value("${trips.search.index.enabled:true}")
+  private boolean enabled;
+
+  private final TripRepository tripRepository;
+
+  public TripSearchIndex(TripRepository tripRepository, PlatformTransactionManager transactionManager) {
+    super(transactionManager);
+    this.tripRepository = tripRepository;
+  }
+
+  public Optional<Hits> search(String keyword, long offset, int limit) {
+    TripInvertedIndex current = usableIndex();
+    if (current == null) {
+      return Optional.empty();
+    }
+    return Optional.of(current.search(keyword, offset, limit));
+  }
+
+  @Scheduled(fixedDelayString = "${trips.search.index.consistency-check-interval:PT5M}",
+      initialDelayString = "${trips.search.index.consistency-check-interval:PT5M}")
+  public void checkConsistency() {
+    reconcile();
+  }
+
+  @Override
+  protected boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  protected TripInvertedIndex createIndex() {
+    return new TripInvertedIndex();
+  }
+
+  @Override
+  protected void load(TripInvertedIndex target) {
+    try (Stream<TripSearchSource> sources = tripRepository.streamSearchSources()) {
+      sources.forEach(source -> put(target, source));
+    }
+  }
+
+  @Override
+  protected void apply(TripInvertedIndex target, TripChangedEvent event) {
+    if (event.isDeleted()) {
+      target.remove(event.getTripId());
+      return;
+    }
+    Trip trip = event.getTrip();
+    target.put(trip.getId(), trip.getTitle(), trip.getDescription(), trip.getLocation(), trip.getTags(), trip.getUpdatedAt());
+  }
+
+  @Override
+  protected int size(TripInvertedIndex target) {
+    return target.size();
+  }
+
+  @Override
+  protected long expectedSize() {
+    return tripRepository.count();
+  }
+
+  @Override
+  protected void catchUp(TripInvertedIndex current) {
+    OffsetDateTime watermark = current.getMaxUpdatedAt();
+    if (watermark == null) {
+      return;
+    }
+    List<TripSearchSource> changed = tripRepository.findSearchSourcesUpdatedAfter(watermark);
+    applyToCurrent(target -> changed.forEach(source -> put(target, source)));
+  }
+
+  private static void put(TripInvertedIndex target, TripSearchSource source) {
+    target.put(source.getId(), source.getTitle(), source.getDescription(), source.getLocation(), source.getTags(), source.getUpdatedAt());
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class Hits {
+    private final List<Long> tripIds;
+    private final long total;
+  }
+}
@@ -0,0 +1,97 @@
+package com.techup.spring_tourist.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns a user keyword into a Postgres {@code to_tsquery('simple', ...)} expression.
+ * Quoted text becomes a phrase ({@code a <-> b}), every other word a prefix match ({@code word:*}),
+ * and all parts are AND-ed. Keywords of three or more characters also get a {@code LIKE} pattern
+ * that the trigram index serves, so text the tokenizer cannot split (Thai) still matches.
+ */
+public final class TripSearchQuery {
+
+  private static final int MIN_SUBSTRING_LENGTH = 3;
+
+  private final String tsQuery;
+  private final String substring;
+  private final String likePattern;
+
+  private TripSearchQuery(String tsQuery, String substring) {
+    this.tsQuery = tsQuery;
+    this.substring = substring;
+    this.likePattern = substring != null ? "%" + escapeLike(substring) + "%" : null;
+  }
+
+  public static TripSearchQuery parse(String keyword) {
+    String normalized = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+
+    List<String> parts = new ArrayList<>();
+    boolean inPhrase = false;
+    for (String segment : normalized.split("\"", -1)) {
+      List<String> words = words(segment);
+      if (inPhrase && words.size() > 1) {
+        parts.add("(" + String.join(" <-> ", quoteAll(words, false)) + ")");
+      } else {
+        parts.addAll(quoteAll(words, !inPhrase));
+      }
+      inPhrase = !inPhrase;
+    }
+
+    String substring = normalized.replace("\"", "").trim();
+    return new TripSearchQuery(String.join(" & ", parts),
+        substring.length() >= MIN_SUBSTRING_LENGTH ? substring : null);
+  }
+
+  public String getTsQuery() {
+    return tsQuery;
+  }
+
+  /** The lower-cased keyword without quotes that {@code search_text} must contain; null when too short. */
+  public String getSubstring() {
+    return substring;
+  }
+
+  public String getLikePattern() {
+    return likePattern;
+  }
+
+  public boolean hasLikePattern() {
+    return likePattern != null;
+  }
+
+  public boolean isEmpty() {
+    return tsQuery.isEmpty() && likePattern == null;
+  }
+
+  private static List<String> words(String text) {
+    List<String> words = new ArrayList<>();
+    StringBuilder current = new StringBuilder();
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK) {
+        current.append(c);
+      } else if (current.length() > 0) {
+        words.add(current.toString());
+        current.setLength(0);
+      }
+    }
+    if (current.length() > 0) {
+      words.add(current.toString());
+    }
+    return words;
+  }
+
+  private static List<String> quoteAll(List<String> words, boolean prefix) {
+    List<String> quoted = new ArrayList<>(words.size());
+    for (String word : words) {
+      quoted.add("'" + word + "'" + (prefix ? ":*" : ""));
+    }
+    return quoted;
+  }
+
+  private static String escapeLike(String text) {
+    return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -1,31 +1,74 @@
 package com.techup.spring_tourist.service;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import com.techup.spring_tourist.dto.CursorPaginatedResponse;
+import com.techup.spring_tourist.dto.NearbyTrip;
 import com.techup.spring_tourist.dto.PaginatedResponse;
+import com.techup.spring_tourist.dto.Suggestion;
+import com.techup.spring_tourist.dto.TagCount;
 import com.techup.spring_tourist.entity.Trip;
 import com.techup.spring_tourist.entity.User;
+import com.techup.spring_tourist.event.TripChangedEvent;
 import com.techup.spring_tourist.repository.TripRepository;
+import com.techup.spring_tourist.repository.TripTagCount;
 import com.techup.spring_tourist.repository.UserRepository;
 
 @Service
 public class TripService {
 
+    public static final int MAX_CURSOR_LIMIT = 100;
+
     private final TripRepository tripRepository;
     private final UserRepository userRepository;
-    private final SupabaseStorageService supabaseStorageService;
+    private final TripPhotoUploader tripPhotoUploader;
+    private final TripSearchIndex tripSearchIndex;
+    private final TripCountService tripCountService;
+    private final TripGeoIndex tripGeoIndex;
+    private final TripTagIndex tripTagIndex;
+    private final TripSuggestIndex tripSuggestIndex;
+    private final TripCache tripCache;
+    private final PendingUploadService pendingUploadService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TripService(TripRepository tripRepository, UserRepository userRepository, SupabaseStorageService supabaseStorageService) {
+    public TripService(TripRepository tripRepository, UserRepository userRepository, TripPhotoUploader tripPhotoUploader,
+                       TripSearchIndex tripSearchIndex, TripCountService tripCountService, TripGeoIndex tripGeoIndex,
+                       TripTagIndex tripTagIndex, TripSuggestIndex tripSuggestIndex, TripCache tripCache, PendingUploadService pendingUploadService,
+                       PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher) {
         this.tripRepository = tripRepository;
         this.userRepository = userRepository;
-        this.supabaseStorageService = supabaseStorageService;
+        this.tripPhotoUploader = tripPhotoUploader;
+        this.tripSearchIndex = tripSearchIndex;
+        this.tripCountService = tripCountService;
+        this.tripGeoIndex = tripGeoIndex;
+        this.tripTagIndex = tripTagIndex;
+        this.tripSuggestIndex = tripSuggestIndex;
+        this.tripCache = tripCache;
+        this.pendingUploadService = pendingUploadService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -34,25 +77,62 @@ public class TripService {
     }
 
     @Transactional(readOnly = true)
-    public PaginatedResponse<Trip> getAllTrips(int page, int limit) {
+    public PaginatedResponse<Trip> getAllTrips(int page, int limit, boolean includeTotal) {
         Pageable pageable = PageRequest.of(page, limit);
-        Page<Trip> tripPage = tripRepository.findAll(pageable);
-        
-        return new PaginatedResponse<>(
-            tripPage.getContent(),
+        Slice<Trip> tripSlice = tripRepository.findTripSlice(pageable);
+        if (!includeTotal) {
+            return new PaginatedResponse<>(tripSlice.getContent(), page, limit, tripSlice.hasNext());
+        }
+
+        long total = tripCountService.totalTrips();
+        PaginatedResponse<Trip> response = new PaginatedResponse<>(
+            tripSlice.getContent(),
             page,
             limit,
-            tripPage.getTotalElements(),
-            tripPage.getTotalPages()
+            total,
+            totalPages(total, limit)
         );
+        response.setHasNext(tripSlice.hasNext());
+        response.setTotalApproximate(true);
+        return response;
     }
 
     @Transactional(readOnly = true)
+    public CursorPaginatedResponse<Trip> getAllTrips(String cursor, int limit) {
+        limit = clampCursorLimit(limit);
+        List<Trip> trips;
+        if (cursor == null || cursor.isEmpty()) {
+            trips = tripRepository.findFirstKeysetPage(Limit.of(limit + 1));
+        } else {
+            TripCursor position = TripCursor.decode(cursor);
+            trips = tripRepository.findKeysetPageAfter(position.getCreatedAt(), position.getId(), Limit.of(limit + 1));
+        }
+        return toCursorPage(trips, limit);
+    }
+
+    // Not transactional: a cache hit must not check out a pooled connection
     public Trip getTripById(Long id) {
-        return tripRepository.findById(id)
+        return tripCache.get(id)
                 .orElseThrow(() -> new RuntimeException("Trip not found"));
     }
 
+    /**
+     * Version of one trip for conditional GETs, without loading it: a cached copy answers,
+     * otherwise only {@code updated_at} is read.
+     */
+    public Optional<OffsetDateTime> getTripVersion(Long id) {
+        Optional<Trip> cached = tripCache.peek(id);
+        if (cached.isPresent()) {
+            return Optional.ofNullable(cached.get().getUpdatedAt());
+        }
+        return tripRepository.findUpdatedAtById(id);
+    }
+
+    // Refreshed with the cached count by TripCountService, so most list requests build their ETag without a query
+    public String getTripsVersion() {
+        return tripCountService.collectionVersion();
+    }
+
     @Transactional(readOnly = true)
     public List<Trip> getTripsByUserEmail(String userEmail) {
         User user = userRepository.findByEmail(userEmail)
@@ -61,10 +141,14 @@ public class TripService {
     }
 
     @Transactional(readOnly = true)
-    public PaginatedResponse<Trip> getTripsByUserEmail(String userEmail, int page, int limit) {
+    public PaginatedResponse<Trip> getTripsByUserEmail(String userEmail, int page, int limit, boolean includeTotal) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + userEmail));
         Pageable pageable = PageRequest.of(page, limit);
+        if (!includeTotal) {
+            Slice<Trip> tripSlice = tripRepository.findTripSliceByAuthor(user, pageable);
+            return new PaginatedResponse<>(tripSlice.getContent(), page, limit, tripSlice.hasNext());
+        }
         Page<Trip> tripPage = tripRepository.findByAuthorOrderByCreatedAtDesc(user, pageable);
         
         return new PaginatedResponse<>(
@@ -76,19 +160,55 @@ public class TripService {
         );
     }
 
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<Trip> getTripsByUserEmail(String userEmail, String cursor, int limit) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + userEmail));
+        limit = clampCursorLimit(limit);
+        List<Trip> trips;
+        if (cursor == null || cursor.isEmpty()) {
+            trips = tripRepository.findFirstKeysetPageByAuthor(user, Limit.of(limit + 1));
+        } else {
+            TripCursor position = TripCursor.decode(cursor);
+            trips = tripRepository.findKeysetPageByAuthorAfter(user, position.getCreatedAt(), position.getId(), Limit.of(limit + 1));
+        }
+        return toCursorPage(trips, limit);
+    }
+
     @Transactional
     public Trip createTrip(Trip trip) {
-        return tripRepository.save(trip);
+        Trip saved = tripRepository.save(trip);
+        eventPublisher.publishEvent(TripChangedEvent.created(saved));
+        return saved;
     }
 
     public List<Trip> searchTrips(String keyword) {
-        return tripRepository.findByKeyword(keyword);
+        TripSearchIndex.Hits hits = tripSearchIndex.search(keyword, 0, Integer.MAX_VALUE).orElse(null);
+        if (hits != null) {
+            return tripCache.getAll(hits.getTripIds());
+        }
+        return searchRanked(TripSearchQuery.parse(keyword), Pageable.unpaged()).getContent();
     }
 
-    @Transactional(readOnly = true)
-    public PaginatedResponse<Trip> searchTrips(String keyword, int page, int limit) {
+    public PaginatedResponse<Trip> searchTrips(String keyword, int page, int limit, boolean includeTotal) {
+        TripSearchIndex.Hits hits = tripSearchIndex.search(keyword, (long) page * limit, limit).orElse(null);
+        if (hits != null) {
+            // The index counts every match anyway, so the total is free here
+            return new PaginatedResponse<>(
+                tripCache.getAll(hits.getTripIds()),
+                page,
+                limit,
+                hits.getTotal(),
+                totalPages(hits.getTotal(), limit)
+            );
+        }
+
         Pageable pageable = PageRequest.of(page, limit);
-        Page<Trip> tripPage = tripRepository.findByKeywordPaged(keyword, pageable);
+        if (!includeTotal) {
+            Slice<Trip> tripSlice = searchRankedSlice(TripSearchQuery.parse(keyword), pageable);
+            return new PaginatedResponse<>(tripSlice.getContent(), page, limit, tripSlice.hasNext());
+        }
+        Page<Trip> tripPage = searchRanked(TripSearchQuery.parse(keyword), pageable);
         
         return new PaginatedResponse<>(
             tripPage.getContent(),
@@ -99,7 +219,63 @@ public class TripService {
         );
     }
 
-    @Transactional
+    /** Newest trips carrying all (or, with {@code matchAll} false, any) of the tags; tags compare case-insensitively. */
+    public PaginatedResponse<Trip> getTripsByTags(List<String> tags, boolean matchAll, int page, int limit) {
+        Set<String> normalized = TripTagIndex.normalize(tags);
+        TripSearchIndex.Hits hits = tripTagIndex.filter(normalized, matchAll, (long) page * limit, limit).orElse(null);
+        if (hits != null) {
+            return new PaginatedResponse<>(
+                tripCache.getAll(hits.getTripIds()),
+                page,
+                limit,
+                hits.getTotal(),
+                totalPages(hits.getTotal(), limit)
+            );
+        }
+        if (normalized.isEmpty()) {
+            return new PaginatedResponse<>(List.of(), page, limit, 0, 0);
+        }
+
+        Pageable pageable = PageRequest.of(page, limit);
+        Page<Long> ids = matchAll
+                ? tripRepository.findIdsWithAllTags(normalized, pageable)
+                : tripRepository.findIdsWithAnyTag(normalized, pageable);
+        return new PaginatedResponse<>(
+            tripCache.getAll(ids.getContent()),
+            page,
+            limit,
+            ids.getTotalElements(),
+            ids.getTotalPages()
+        );
+    }
+
+    /** Most used tags with trip counts; with {@code within}, counted over the trips carrying all of those tags. */
+    public List<TagCount> getTagCounts(List<String> within, int limit) {
+        List<TagCount> indexed = tripTagIndex.facets(within, limit).orElse(null);
+        if (indexed != null) {
+            return indexed;
+        }
+        Set<String> normalized = TripTagIndex.normalize(within);
+        List<TripTagCount> counts = normalized.isEmpty()
+                ? tripRepository.countTags(limit)
+                : tripRepository.countTagsWithin(normalized, limit);
+        return counts.stream().map(count -> new TagCount(count.getTag(), count.getCount())).toList();
+    }
+
+    // Memory only, even while the index builds: typeahead traffic must not reach the database
+    public List<Suggestion> suggest(String prefix, String kind, int limit) {
+        return tripSuggestIndex.suggest(prefix, kind, limit);
+    }
+
+    public List<NearbyTrip> findNearbyTrips(double latitude, double longitude, double radiusKm, int limit) {
+        return toNearbyTrips(tripGeoIndex.nearest(latitude, longitude, radiusKm, limit));
+    }
+
+    public List<NearbyTrip> findTripsWithin(double minLat, double maxLat, double minLng, double maxLng, int limit) {
+        return toNearbyTrips(tripGeoIndex.within(minLat, maxLat, minLng, maxLng, limit));
+    }
+
+    // Not transactional: photos upload without holding a connection, the insert gets its own short transaction
     public Trip createTripWithPhotos(
             String title,
             String description,
@@ -113,18 +289,12 @@ public class TripService {
         User author = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + userEmail));
 
-        String[] photoUrls;
-        try {
-            photoUrls = supabaseStorageService.uploadFiles(photos);
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
-                "Failed to upload photos: " + e.getMessage(), e);
-        }
+        TripPhotoUploader.Uploaded uploaded = tripPhotoUploader.upload(photos);
 
         Trip trip = new Trip();
         trip.setTitle(title);
         trip.setDescription(description);
-        trip.setPhotos(photoUrls);
+        uploaded.applyTo(trip);
         trip.setTags(tags != null ? tags : new String[0]);
         trip.setLocation(location);
         trip.setLatitude(latitude);
@@ -132,26 +302,43 @@ public class TripService {
         trip.setAuthor(author);
 
         try {
-            return tripRepository.save(trip);
+            return transactionTemplate.execute(status -> {
+                Trip saved = tripRepository.save(trip);
+                pendingUploadService.complete(uploaded.getPending());
+                eventPublisher.publishEvent(TripChangedEvent.created(saved));
+                return saved;
+            });
         } catch (Exception e) {
+            pendingUploadService.discard(uploaded.getPending());
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
                 "Failed to save trip: " + e.getMessage(), e);
         }
     }
 
+    // Variants are the server's: kept while photos stay the same, dropped with the photos they were made from
     @Transactional
     public Trip updateTrip(Long id, Trip trip) {
-        Trip existingTrip = getTripById(id);
+        Trip existingTrip = findTripForUpdate(id);
         existingTrip.setTitle(trip.getTitle());
         existingTrip.setDescription(trip.getDescription());
-        existingTrip.setPhotos(trip.getPhotos());
+        if (!Arrays.equals(existingTrip.getPhotos(), trip.getPhotos())) {
+            String[] previousUrls = TripPhotoUploader.allUrls(existingTrip);
+            existingTrip.setPhotos(trip.getPhotos());
+            existingTrip.setThumbnails(null);
+            existingTrip.setMediumPhotos(null);
+            if (previousUrls.length > 0) {
+                pendingUploadService.record(previousUrls);
+            }
+        }
         existingTrip.setTags(trip.getTags());
         existingTrip.setLatitude(trip.getLatitude());
         existingTrip.setLongitude(trip.getLongitude());
-        return tripRepository.save(existingTrip);
+        Trip saved = tripRepository.save(existingTrip);
+        eventPublisher.publishEvent(TripChangedEvent.updated(saved));
+        return saved;
     }
 
-    @Transactional
+    // Not transactional for the same reason as createTripWithPhotos
     public Trip updateTripWithPhotos(
             Long id,
             String title,
@@ -163,7 +350,7 @@ public class TripService {
             Double longitude,
             String userEmail) {
         
-        Trip existingTrip = getTripById(id);
+        Trip existingTrip = findTripForUpdate(id);
         
         User currentUser = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found: " + userEmail));
@@ -173,41 +360,46 @@ public class TripService {
                 "You can only edit your own trips");
         }
         
-        String[] photoUrls;
-        if (photos != null && photos.length > 0) {
-            boolean hasValidFiles = false;
+        boolean hasValidFiles = false;
+        if (photos != null) {
             for (MultipartFile photo : photos) {
                 if (photo != null && !photo.isEmpty() && photo.getSize() > 0) {
                     hasValidFiles = true;
                     break;
                 }
             }
-            
-            if (hasValidFiles) {
-                try {
-                    photoUrls = supabaseStorageService.uploadFiles(photos);
-                } catch (Exception e) {
-                    throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
-                        "Failed to upload photos: " + e.getMessage(), e);
-                }
-            } else {
-                photoUrls = existingTrip.getPhotos() != null ? existingTrip.getPhotos() : new String[0];
-            }
-        } else {
-            photoUrls = existingTrip.getPhotos() != null ? existingTrip.getPhotos() : new String[0];
         }
-        
-        existingTrip.setTitle(title);
-        existingTrip.setDescription(description);
-        existingTrip.setPhotos(photoUrls);
-        existingTrip.setTags(tags != null ? tags : new String[0]);
-        existingTrip.setLocation(location);
-        existingTrip.setLatitude(latitude);
-        existingTrip.setLongitude(longitude);
+
+        TripPhotoUploader.Uploaded uploaded = hasValidFiles ? tripPhotoUploader.upload(photos) : null;
         
         try {
-            return tripRepository.save(existingTrip);
+            return transactionTemplate.execute(status -> {
+                Trip trip = findTripForUpdate(id);
+                String[] previousUrls = TripPhotoUploader.allUrls(trip);
+                trip.setTitle(title);
+                trip.setDescription(description);
+                if (uploaded != null) {
+                    uploaded.applyTo(trip);
+                }
+                trip.setTags(tags != null ? tags : new String[0]);
+                trip.setLocation(location);
+                trip.setLatitude(latitude);
+                trip.setLongitude(longitude);
+                Trip saved = tripRepository.save(trip);
+                if (uploaded != null) {
+                    pendingUploadService.complete(uploaded.getPending());
+                    // Replaced photos are removed by the reconciler once nothing references them
+                    if (previousUrls.length > 0) {
+                        pendingUploadService.record(previousUrls);
+                    }
+                }
+                eventPublisher.publishEvent(TripChangedEvent.updated(saved));
+                return saved;
+            });
         } catch (Exception e) {
+            if (uploaded != null) {
+                pendingUploadService.discard(uploaded.getPending());
+            }
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, 
                 "Failed to save trip: " + e.getMessage(), e);
         }
@@ -215,6 +407,64 @@ public class TripService {
 
     @Transactional
     public void deleteTrip(Long id) {
+        if (!tripRepository.existsById(id)) {
+            return;
+        }
         tripRepository.deleteById(id);
+        eventPublisher.publishEvent(TripChangedEvent.deleted(id));
+    }
+
+    // limit + 1 must not overflow, and one request should not be able to pull the whole table
+    private static int clampCursorLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_CURSOR_LIMIT));
+    }
+
+    // Pages are fetched with limit + 1 rows; the extra row only signals that another page exists
+    private CursorPaginatedResponse<Trip> toCursorPage(List<Trip> trips, int limit) {
+        if (trips.size() <= limit) {
+            return new CursorPaginatedResponse<>(trips, limit, null);
+        }
+        List<Trip> page = trips.subList(0, limit);
+        Trip last = page.get(limit - 1);
+        return new CursorPaginatedResponse<>(page, limit, new TripCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    // The author comes with the trip: the saved entity is serialized after the session has closed
+    private Trip findTripForUpdate(Long id) {
+        return tripRepository.findWithAuthorById(id)
+                .orElseThrow(() -> new RuntimeException("Trip not found"));
+    }
+
+    private List<NearbyTrip> toNearbyTrips(List<TripGeoIndex.Hit> hits) {
+        Map<Long, Trip> byId = tripCache.getAll(hits.stream().map(TripGeoIndex.Hit::getTripId).toList()).stream()
+                .collect(Collectors.toMap(Trip::getId, Function.identity()));
+        return hits.stream()
+                .filter(hit -> byId.containsKey(hit.getTripId()))
+                .map(hit -> new NearbyTrip(byId.get(hit.getTripId()), hit.getDistanceKm()))
+                .toList();
+    }
+
+    private Slice<Trip> searchRankedSlice(TripSearchQuery query, Pageable pageable) {
+        if (query.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Slice<Long> ids = query.hasLikePattern()
+                ? tripRepository.searchRankedOrSubstringIdsSlice(query.getTsQuery(), query.getLikePattern(), pageable)
+                : tripRepository.searchRankedIdsSlice(query.getTsQuery(), pageable);
+        return new SliceImpl<>(tripCache.getAll(ids.getContent()), pageable, ids.hasNext());
+    }
+
+    private static int totalPages(long total, int limit) {
+        return (int) ((total + limit - 1) / limit);
+    }
+
+    private Page<Trip> searchRanked(TripSearchQuery query, Pageable pageable) {
+        if (query.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Page<Long> ids = query.hasLikePattern()
+                ? tripRepository.searchRankedOrSubstringIds(query.getTsQuery(), query.getLikePattern(), pageable)
+                : tripRepository.searchRankedIds(query.getTsQuery(), pageable);
+        return new PageImpl<>(tripCache.getAll(ids.getContent()), pageable, ids.getTotalElements());
     }
 }
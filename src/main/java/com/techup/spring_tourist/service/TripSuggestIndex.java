@@ -0,0 +1,102 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.dto.Suggestion;
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.event.TripChangedEvent;
+import com.techup.spring_tourist.repository.TripRepository;
+import com.techup.spring_tourist.repository.TripSearchSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix completions of trip locations and tags for the search box. Typeahead never
+ * falls back to SQL: while the index is building it suggests nothing.
+ */
+@Component
+public class TripSuggestIndex extends InMemoryTripIndex<TripSuggestions> {
+
+  @Value("${trips.suggest.index.enabled:true}")
+  private boolean enabled;
+
+  @Value("${trips.suggest.max-results:10}")
+  private int maxResults;
+
+  private final TripRepository tripRepository;
+
+  public TripSuggestIndex(TripRepository tripRepository, PlatformTransactionManager transactionManager) {
+    super(transactionManager);
+    this.tripRepository = tripRepository;
+  }
+
+  /** {@code kind} is {@code location}, {@code tag} or null for both. */
+  public List<Suggestion> suggest(String prefix, String kind, int limit) {
+    TripSuggestions current = usableIndex();
+    if (current == null) {
+      return List.of();
+    }
+    return current.suggest(prefix, kind, Math.min(limit, maxResults));
+  }
+
+  @Scheduled(fixedDelayString = "${trips.suggest.index.consistency-check-interval:PT5M}",
+      initialDelayString = "${trips.suggest.index.consistency-check-interval:PT5M}")
+  public void checkConsistency() {
+    reconcile();
+  }
+
+  @Override
+  protected boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  protected TripSuggestions createIndex() {
+    return new TripSuggestions(maxResults);
+  }
+
+  @Override
+  protected void load(TripSuggestions target) {
+    try (Stream<TripSearchSource> sources = tripRepository.streamSearchSources()) {
+      sources.forEach(source -> put(target, source));
+    }
+  }
+
+  @Override
+  protected void apply(TripSuggestions target, TripChangedEvent event) {
+    if (event.isDeleted()) {
+      target.remove(event.getTripId());
+      return;
+    }
+    Trip trip = event.getTrip();
+    target.put(trip.getId(), trip.getLocation(), trip.getTags(), trip.getUpdatedAt());
+  }
+
+  @Override
+  protected int size(TripSuggestions target) {
+    return target.size();
+  }
+
+  @Override
+  protected long expectedSize() {
+    return tripRepository.count();
+  }
+
+  @Override
+  protected void catchUp(TripSuggestions current) {
+    OffsetDateTime watermark = current.getMaxUpdatedAt();
+    if (watermark == null) {
+      return;
+    }
+    List<TripSearchSource> changed = tripRepository.findSearchSourcesUpdatedAfter(watermark);
+    applyToCurrent(target -> changed.forEach(source -> put(target, source)));
+  }
+
+  private static void put(TripSuggestions target, TripSearchSource source) {
+    target.put(source.getId(), source.getLocation(), source.getTags(), source.getUpdatedAt());
+  }
+}
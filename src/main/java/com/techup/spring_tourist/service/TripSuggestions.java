@@ -0,0 +1,142 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.dto.Suggestion;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over distinct trip locations and tags, each weighted by how many trips use it.
+ * Every trip's contribution is remembered, so an update or delete moves exactly its own weight.
+ * Keys are trimmed and lower-cased, as tag filters compare them; the text shown is the first spelling seen.
+ */
+final class TripSuggestions {
+
+  static final String LOCATION = "location";
+  static final String TAG = "tag";
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final SuggestTrie locations;
+  private final SuggestTrie tags;
+  private final Map<Long, Contribution> contributions = new HashMap<>();
+  private OffsetDateTime maxUpdatedAt;
+
+  TripSuggestions(int maxResults) {
+    this.locations = new SuggestTrie(maxResults);
+    this.tags = new SuggestTrie(maxResults);
+  }
+
+  void put(long tripId, String location, String[] tripTags, OffsetDateTime updatedAt) {
+    Contribution contribution = Contribution.of(location, tripTags);
+    lock.writeLock().lock();
+    try {
+      Contribution previous = contributions.put(tripId, contribution);
+      if (previous != null) {
+        previous.applyTo(locations, tags, -1);
+      }
+      contribution.applyTo(locations, tags, 1);
+
+      if (updatedAt != null && (maxUpdatedAt == null || updatedAt.isAfter(maxUpdatedAt))) {
+        maxUpdatedAt = updatedAt;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void remove(long tripId) {
+    lock.writeLock().lock();
+    try {
+      Contribution previous = contributions.remove(tripId);
+      if (previous != null) {
+        previous.applyTo(locations, tags, -1);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Locations and tags starting with {@code prefix}, most used first; {@code kind} narrows to one of them. */
+  List<Suggestion> suggest(String prefix, String kind, int limit) {
+    String key = normalize(prefix);
+    if (key.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    List<SuggestTrie.Entry> locationHits;
+    List<SuggestTrie.Entry> tagHits;
+    lock.readLock().lock();
+    try {
+      locationHits = TAG.equals(kind) ? List.of() : List.copyOf(locations.complete(key, limit));
+      tagHits = LOCATION.equals(kind) ? List.of() : List.copyOf(tags.complete(key, limit));
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    // Both lists are sorted already: merge until the limit
+    List<Suggestion> merged = new ArrayList<>(Math.min(limit, locationHits.size() + tagHits.size()));
+    int l = 0;
+    int t = 0;
+    while (merged.size() < limit && (l < locationHits.size() || t < tagHits.size())) {
+      boolean takeLocation = t == tagHits.size()
+          || (l < locationHits.size() && SuggestTrie.BY_WEIGHT.compare(locationHits.get(l), tagHits.get(t)) <= 0);
+      SuggestTrie.Entry entry = takeLocation ? locationHits.get(l++) : tagHits.get(t++);
+      merged.add(new Suggestion(entry.text(), takeLocation ? LOCATION : TAG, entry.weight()));
+    }
+    return merged;
+  }
+
+  int size() {
+    lock.readLock().lock();
+    try {
+      return contributions.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  OffsetDateTime getMaxUpdatedAt() {
+    lock.readLock().lock();
+    try {
+      return maxUpdatedAt;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  static String normalize(String text) {
+    return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /** What one trip adds: its location and its distinct tags, keyed by normalized text. */
+  private record Contribution(String locationKey, String locationText, Map<String, String> tags) {
+
+    static Contribution of(String location, String[] tripTags) {
+      String locationKey = normalize(location);
+      Map<String, String> tagTexts = new LinkedHashMap<>();
+      if (tripTags != null) {
+        for (String tag : tripTags) {
+          String tagKey = normalize(tag);
+          if (!tagKey.isEmpty()) {
+            tagTexts.putIfAbsent(tagKey, tag.trim());
+          }
+        }
+      }
+      return new Contribution(locationKey.isEmpty() ? null : locationKey,
+          locationKey.isEmpty() ? null : location.trim(), tagTexts);
+    }
+
+    void applyTo(SuggestTrie locations, SuggestTrie tags, long delta) {
+      if (locationKey != null) {
+        locations.add(locationKey, locationText, delta);
+      }
+      this.tags.forEach((key, text) -> tags.add(key, text, delta));
+    }
+  }
+}
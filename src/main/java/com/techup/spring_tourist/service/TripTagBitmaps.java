@@ -0,0 +1,207 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.dto.TagCount;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tag to trips map as one compressed bitmap of document numbers per tag. Documents are numbered
+ * in insertion order (the load streams trips oldest first), so walking a bitmap backwards lists
+ * the newest trips first. Tags are trimmed and lower-cased; AND/OR filters and facet counts are
+ * bitmap intersections and cardinalities, never a scan of the trips.
+ */
+final class TripTagBitmaps {
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, RoaringBitmap> docsByTag = new HashMap<>();
+  private final Map<Long, Integer> docByTripId = new HashMap<>();
+  private long[] tripIdByDoc = new long[1024];
+  private String[][] tagsByDoc = new String[1024][];
+  private int nextDoc;
+  private OffsetDateTime maxUpdatedAt;
+
+  void put(long tripId, String[] tags, OffsetDateTime updatedAt) {
+    String[] normalized = normalize(tags == null ? List.of() : Arrays.asList(tags)).toArray(new String[0]);
+
+    lock.writeLock().lock();
+    try {
+      Integer existing = docByTripId.get(tripId);
+      int doc;
+      if (existing != null) {
+        doc = existing;
+        removeTags(doc);
+      } else {
+        doc = allocateDoc(tripId);
+      }
+
+      for (String tag : normalized) {
+        docsByTag.computeIfAbsent(tag, k -> new RoaringBitmap()).add(doc);
+      }
+      tagsByDoc[doc] = normalized;
+
+      if (updatedAt != null && (maxUpdatedAt == null || updatedAt.isAfter(maxUpdatedAt))) {
+        maxUpdatedAt = updatedAt;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  void remove(long tripId) {
+    lock.writeLock().lock();
+    try {
+      Integer doc = docByTripId.remove(tripId);
+      if (doc != null) {
+        removeTags(doc);
+        tagsByDoc[doc] = null;
+        tripIdByDoc[doc] = 0;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Newest trips carrying all (or any) of the tags, skipping {@code offset}, and how many match in total. */
+  TripSearchIndex.Hits filter(Collection<String> tags, boolean matchAll, long offset, int limit) {
+    lock.readLock().lock();
+    try {
+      RoaringBitmap matches = matching(normalize(tags), matchAll);
+      List<Long> tripIds = new ArrayList<>(Math.min(limit, matches.getCardinality()));
+      IntIterator docs = matches.getReverseIntIterator();
+      for (long skipped = 0; skipped < offset && docs.hasNext(); skipped++) {
+        docs.next();
+      }
+      while (tripIds.size() < limit && docs.hasNext()) {
+        tripIds.add(tripIdByDoc[docs.next()]);
+      }
+      return new TripSearchIndex.Hits(tripIds, matches.getLongCardinality());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * The most used tags with their trip counts, most frequent first. With {@code within} tags the
+   * counts are restricted to trips carrying all of them, which themselves are left out.
+   */
+  List<TagCount> facets(Collection<String> within, int limit) {
+    Set<String> filter = normalize(within);
+    lock.readLock().lock();
+    try {
+      RoaringBitmap scope = filter.isEmpty() ? null : matching(filter, true);
+      List<TagCount> counts = new ArrayList<>();
+      for (Map.Entry<String, RoaringBitmap> entry : docsByTag.entrySet()) {
+        if (filter.contains(entry.getKey())) {
+          continue;
+        }
+        long count = scope == null
+            ? entry.getValue().getLongCardinality()
+            : RoaringBitmap.andCardinality(entry.getValue(), scope);
+        if (count > 0) {
+          counts.add(new TagCount(entry.getKey(), count));
+        }
+      }
+      counts.sort(Comparator.comparingLong(TagCount::getCount).reversed().thenComparing(TagCount::getTag));
+      return counts.size() > limit ? List.copyOf(counts.subList(0, limit)) : counts;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  int size() {
+    lock.readLock().lock();
+    try {
+      return docByTripId.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  OffsetDateTime getMaxUpdatedAt() {
+    lock.readLock().lock();
+    try {
+      return maxUpdatedAt;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Trimmed, lower-cased, distinct and non-blank, in their original order. */
+  static Set<String> normalize(Collection<String> tags) {
+    Set<String> normalized = new LinkedHashSet<>();
+    if (tags != null) {
+      for (String tag : tags) {
+        String value = tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+        if (!value.isEmpty()) {
+          normalized.add(value);
+        }
+      }
+    }
+    return normalized;
+  }
+
+  private RoaringBitmap matching(Set<String> tags, boolean matchAll) {
+    if (tags.isEmpty()) {
+      return new RoaringBitmap();
+    }
+    List<RoaringBitmap> bitmaps = new ArrayList<>(tags.size());
+    for (String tag : tags) {
+      RoaringBitmap docs = docsByTag.get(tag);
+      if (docs != null) {
+        bitmaps.add(docs);
+      } else if (matchAll) {
+        return new RoaringBitmap();
+      }
+    }
+    if (bitmaps.isEmpty()) {
+      return new RoaringBitmap();
+    }
+    // A single tag returns the index's own bitmap; callers only read it under the read lock
+    if (bitmaps.size() == 1) {
+      return bitmaps.get(0);
+    }
+    return matchAll ? FastAggregation.and(bitmaps.iterator()) : FastAggregation.or(bitmaps.iterator());
+  }
+
+  private void removeTags(int doc) {
+    String[] tags = tagsByDoc[doc];
+    if (tags == null) {
+      return;
+    }
+    for (String tag : tags) {
+      RoaringBitmap docs = docsByTag.get(tag);
+      if (docs != null) {
+        docs.remove(doc);
+        if (docs.isEmpty()) {
+          docsByTag.remove(tag);
+        }
+      }
+    }
+  }
+
+  private int allocateDoc(long tripId) {
+    if (nextDoc == tripIdByDoc.length) {
+      tripIdByDoc = Arrays.copyOf(tripIdByDoc, nextDoc * 2);
+      tagsByDoc = Arrays.copyOf(tagsByDoc, nextDoc * 2);
+    }
+    int doc = nextDoc++;
+    tripIdByDoc[doc] = tripId;
+    docByTripId.put(tripId, doc);
+    return doc;
+  }
+}
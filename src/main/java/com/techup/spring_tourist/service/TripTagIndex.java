@@ -0,0 +1,110 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.dto.TagCount;
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.event.TripChangedEvent;
+import com.techup.spring_tourist.repository.TripRepository;
+import com.techup.spring_tourist.repository.TripTagSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * In-memory tag bitmaps for tag filters and facet counts over the whole catalog.
+ * While the index is building both return empty and callers use the GIN-indexed SQL instead.
+ */
+@Component
+public class TripTagIndex extends InMemoryTripIndex<TripTagBitmaps> {
+
+  @Value("${trips.tags.index.enabled:true}")
+  private boolean enabled;
+
+  private final TripRepository tripRepository;
+
+  public TripTagIndex(TripRepository tripRepository, PlatformTransactionManager transactionManager) {
+    super(transactionManager);
+    this.tripRepository = tripRepository;
+  }
+
+  public Optional<TripSearchIndex.Hits> filter(Collection<String> tags, boolean matchAll, long offset, int limit) {
+    TripTagBitmaps current = usableIndex();
+    if (current == null) {
+      return Optional.empty();
+    }
+    return Optional.of(current.filter(tags, matchAll, offset, limit));
+  }
+
+  public Optional<List<TagCount>> facets(Collection<String> within, int limit) {
+    TripTagBitmaps current = usableIndex();
+    if (current == null) {
+      return Optional.empty();
+    }
+    return Optional.of(current.facets(within, limit));
+  }
+
+  /** Tags as the index and the SQL fallback compare them: trimmed, lower-cased, distinct, non-blank. */
+  public static Set<String> normalize(Collection<String> tags) {
+    return TripTagBitmaps.normalize(tags);
+  }
+
+  @Scheduled(fixedDelayString = "${trips.tags.index.consistency-check-interval:PT5M}",
+      initialDelayString = "${trips.tags.index.consistency-check-interval:PT5M}")
+  public void checkConsistency() {
+    reconcile();
+  }
+
+  @Override
+  protected boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  protected TripTagBitmaps createIndex() {
+    return new TripTagBitmaps();
+  }
+
+  @Override
+  protected void load(TripTagBitmaps target) {
+    try (Stream<TripTagSource> sources = tripRepository.streamTagSources()) {
+      sources.forEach(source -> target.put(source.getId(), source.getTags(), source.getUpdatedAt()));
+    }
+  }
+
+  @Override
+  protected void apply(TripTagBitmaps target, TripChangedEvent event) {
+    if (event.isDeleted()) {
+      target.remove(event.getTripId());
+      return;
+    }
+    Trip trip = event.getTrip();
+    target.put(trip.getId(), trip.getTags(), trip.getUpdatedAt());
+  }
+
+  @Override
+  protected int size(TripTagBitmaps target) {
+    return target.size();
+  }
+
+  @Override
+  protected long expectedSize() {
+    return tripRepository.count();
+  }
+
+  @Override
+  protected void catchUp(TripTagBitmaps current) {
+    OffsetDateTime watermark = current.getMaxUpdatedAt();
+    if (watermark == null) {
+      return;
+    }
+    List<TripTagSource> changed = tripRepository.findTagSourcesUpdatedAfter(watermark);
+    applyToCurrent(target -> changed.forEach(source -> target.put(source.getId(), source.getTags(), source.getUpdatedAt())));
+  }
+}
@@ -0,0 +1,45 @@
+package com.techup.spring_tourist.service;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Word segmentation shared by the in-memory indexes. The JDK's Thai break iterator is
+ * dictionary based, so Thai text without spaces is split into words; Latin text splits on
+ * the usual word boundaries. Tokens are lower-cased and punctuation-only tokens are dropped.
+ */
+final class TripTokenizer {
+
+  private static final Locale THAI = Locale.forLanguageTag("th");
+
+  private TripTokenizer() {
+  }
+
+  static List<String> tokenize(String text) {
+    List<String> tokens = new ArrayList<>();
+    if (text == null || text.isEmpty()) {
+      return tokens;
+    }
+
+    BreakIterator words = BreakIterator.getWordInstance(THAI);
+    words.setText(text);
+    int start = words.first();
+    for (int end = words.next(); end != BreakIterator.DONE; start = end, end = words.next()) {
+      if (hasLetterOrDigit(text, start, end)) {
+        tokens.add(text.substring(start, end).toLowerCase(Locale.ROOT));
+      }
+    }
+    return tokens;
+  }
+
+  private static boolean hasLetterOrDigit(String text, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (Character.isLetterOrDigit(text.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,89 @@
+package com.techup.spring_tourist.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techup.spring_tourist.dto.PaginatedResponse;
+import com.techup.spring_tourist.entity.Trip;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BinaryFormatConfigTest {
+
+	@Test
+	void appendsBinaryConvertersAfterJson() {
+		List<HttpMessageConverter<?>> converters = converters();
+
+		assertThat(converters).hasSize(3);
+		assertThat(converters.get(0)).isInstanceOf(MappingJackson2HttpMessageConverter.class);
+		assertThat(converters.get(1)).isInstanceOf(MappingJackson2CborHttpMessageConverter.class);
+		assertThat(converters.get(2)).isInstanceOf(MappingJackson2SmileHttpMessageConverter.class);
+	}
+
+	@Test
+	void binaryFormatsOmitNullsAndAreSmallerThanJson() throws Exception {
+		PaginatedResponse<Trip> page = new PaginatedResponse<>(sampleTrips(20), 0, 20, true);
+		Map<String, byte[]> encoded = new LinkedHashMap<>();
+
+		for (HttpMessageConverter<?> converter : converters()) {
+			ObjectMapper mapper = ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+			String format = mapper.getFactory().getFormatName();
+			encoded.put(format, mapper.writeValueAsBytes(page));
+
+			JsonNode decoded = mapper.readTree(encoded.get(format));
+			assertThat(decoded.has("total")).isFalse();
+			assertThat(decoded.get("hasNext").asBoolean()).isTrue();
+			assertThat(decoded.get("data").get(0).has("description")).isFalse();
+		}
+
+		assertThat(encoded.get("CBOR").length).isLessThan(encoded.get("JSON").length);
+		assertThat(encoded.get("Smile").length).isLessThan(encoded.get("JSON").length);
+	}
+
+	private static List<HttpMessageConverter<?>> converters() {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+				.serializationInclusion(JsonInclude.Include.NON_NULL);
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("builder", builder));
+		BinaryFormatConfig config = new BinaryFormatConfig(beanFactory.getBeanProvider(Jackson2ObjectMapperBuilder.class));
+
+		List<HttpMessageConverter<?>> converters = new ArrayList<>();
+		converters.add(new MappingJackson2HttpMessageConverter(builder.build()));
+		config.extendMessageConverters(converters);
+		return converters;
+	}
+
+	private static List<Trip> sampleTrips(int count) {
+		List<Trip> trips = new ArrayList<>();
+		for (long id = 1; id <= count; id++) {
+			Trip trip = new Trip();
+			trip.setId(id);
+			trip.setTitle("Island hopping day " + id);
+			trip.setLocation("Krabi");
+			trip.setLatitude(8.0863 + id / 1000.0);
+			trip.setLongitude(98.9063 - id / 1000.0);
+			trip.setPhotos(new String[] {
+					"https://example.supabase.co/storage/v1/object/public/uploads/1700000000000_" + id + "_a.jpg",
+					"https://example.supabase.co/storage/v1/object/public/uploads/1700000000000_" + id + "_b.jpg"});
+			trip.setTags(new String[] {"beach", "island", "snorkelling"});
+			trip.setCreatedAt(OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).plusHours(id));
+			trip.setUpdatedAt(trip.getCreatedAt());
+			trips.add(trip);
+		}
+		return trips;
+	}
+}
@@ -0,0 +1,70 @@
+package com.techup.spring_tourist.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedDataSourceTest {
+
+	@Test
+	void closingTheConnectionReleasesItsPermitOnce() throws SQLException {
+		DataSource target = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		when(target.getConnection()).thenReturn(connection);
+		ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 2, 10, Duration.ofMillis(10));
+
+		Connection limited = dataSource.getConnection();
+		assertThat(dataSource.availablePermits()).isEqualTo(1);
+
+		limited.close();
+		limited.close();
+
+		assertThat(dataSource.availablePermits()).isEqualTo(2);
+		verify(connection, times(2)).close();
+	}
+
+	@Test
+	void timesOutWhenAllPermitsAreTaken() throws SQLException {
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenReturn(mock(Connection.class));
+		ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 10, Duration.ofMillis(10));
+
+		dataSource.getConnection();
+
+		assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+	}
+
+	@Test
+	void rejectsImmediatelyWhenTooManyCallersWait() throws SQLException {
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenReturn(mock(Connection.class));
+		ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 0, Duration.ofMinutes(1));
+
+		dataSource.getConnection();
+
+		assertThatThrownBy(dataSource::getConnection)
+				.isInstanceOf(SQLTransientConnectionException.class)
+				.hasMessageContaining("Too many callers");
+	}
+
+	@Test
+	void releasesThePermitWhenTheTargetFails() throws SQLException {
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenThrow(new SQLException("down"));
+		ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 10, Duration.ofMillis(10));
+
+		assertThatThrownBy(dataSource::getConnection).hasMessage("down");
+		assertThat(dataSource.availablePermits()).isEqualTo(1);
+	}
+}
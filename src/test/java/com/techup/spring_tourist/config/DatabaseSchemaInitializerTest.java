@@ -0,0 +1,40 @@
+package com.techup.spring_tourist.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class DatabaseSchemaInitializerTest {
+
+	@Test
+	void failsStartupWhenTheSequenceCannotBeMoved() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		doThrow(new DataAccessResourceFailureException("permission denied for sequence trips_seq"))
+				.when(jdbcTemplate).execute(contains("setval('trips_seq'"));
+		DatabaseSchemaInitializer initializer = new DatabaseSchemaInitializer(jdbcTemplate, mock(EntityManagerFactory.class));
+
+		assertThatThrownBy(initializer::initialize)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("trips_seq");
+	}
+
+	@Test
+	void skipsOptionalStatementsThatFail() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		doThrow(new DataAccessResourceFailureException("extension \"pg_trgm\" is not available"))
+				.when(jdbcTemplate).execute(contains("pg_trgm"));
+		DatabaseSchemaInitializer initializer = new DatabaseSchemaInitializer(jdbcTemplate, mock(EntityManagerFactory.class));
+
+		assertThatCode(initializer::initialize).doesNotThrowAnyException();
+		verify(jdbcTemplate, atLeastOnce()).execute(contains("idx_trips_lat_lng"));
+	}
+}
@@ -0,0 +1,68 @@
+package com.techup.spring_tourist.config;
+
+import com.techup.spring_tourist.controller.PhotoController;
+import com.techup.spring_tourist.security.JwtAuthenticationFilter;
+import com.techup.spring_tourist.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.endpoint.EndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.health.HealthEndpointAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.prometheus.PrometheusMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementContextAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(PhotoController.class)
+@Import({WebConfig.class, JwtAuthenticationFilter.class})
+@ImportAutoConfiguration({EndpointAutoConfiguration.class, WebEndpointAutoConfiguration.class,
+		HealthEndpointAutoConfiguration.class, MetricsAutoConfiguration.class,
+		PrometheusMetricsExportAutoConfiguration.class, ManagementContextAutoConfiguration.class})
+@TestPropertySource(properties = {
+		"management.endpoints.web.exposure.include=health,prometheus",
+		"management.prometheus.metrics.export.enabled=true",
+		"auth.scraper.username=scraper",
+		"auth.scraper.password=s3cret"
+})
+class WebConfigTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private JwtService jwtService;
+
+	@MockitoBean
+	private UserDetailsService userDetailsService;
+
+	@Test
+	void healthIsPublic() throws Exception {
+		mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+	}
+
+	@Test
+	void prometheusRequiresTheScraperCredentials() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("scraper", "wrong")))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("scraper", "s3cret")))
+				.andExpect(status().isOk());
+	}
+
+	private static String basic(String username, String password) {
+		return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+	}
+}
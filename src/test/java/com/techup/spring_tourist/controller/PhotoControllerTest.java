@@ -0,0 +1,112 @@
+package com.techup.spring_tourist.controller;
+
+import com.techup.spring_tourist.service.LocalStorageService;
+import com.techup.spring_tourist.service.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PhotoControllerTest {
+
+	private static final String NAME = "a".repeat(64) + ".jpg";
+	private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+	@TempDir
+	Path root;
+
+	private PhotoController controller;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		LocalStorageService storage = new LocalStorageService(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(storage, "root", root);
+		ReflectionTestUtils.setField(storage, "publicUrl", "/api/photos");
+		storage.init();
+		storage.uploadAll(List.of(new StorageService.Upload("/api/photos/" + NAME, new ByteArrayResource(CONTENT),
+				"image/jpeg", CONTENT.length)));
+
+		controller = new PhotoController(storage);
+		ReflectionTestUtils.setField(controller, "maxAge", Duration.ofDays(365));
+	}
+
+	@Test
+	void servesWholeFileWithImmutableCaching() throws IOException {
+		MockHttpServletResponse response = get(new MockHttpServletRequest());
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+		assertThat(response.getContentType()).isEqualTo("image/jpeg");
+		assertThat(response.getHeader("Cache-Control")).isEqualTo("max-age=31536000, public, immutable");
+		assertThat(response.getHeader("ETag")).isEqualTo("\"" + NAME + "\"");
+		assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+	}
+
+	@Test
+	void servesSingleRanges() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Range", "bytes=2-5");
+		MockHttpServletResponse response = get(request);
+
+		assertThat(response.getStatus()).isEqualTo(206);
+		assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 2-5/10");
+		assertThat(response.getContentAsString()).isEqualTo("2345");
+
+		MockHttpServletRequest suffix = new MockHttpServletRequest();
+		suffix.addHeader("Range", "bytes=-3");
+		assertThat(get(suffix).getContentAsString()).isEqualTo("789");
+
+		MockHttpServletRequest unsatisfiable = new MockHttpServletRequest();
+		unsatisfiable.addHeader("Range", "bytes=20-");
+		MockHttpServletResponse rejected = get(unsatisfiable);
+		assertThat(rejected.getStatus()).isEqualTo(416);
+		assertThat(rejected.getHeader("Content-Range")).isEqualTo("bytes */10");
+	}
+
+	@Test
+	void handsTheFileToTomcatSendfileWhenSupported() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(PhotoController.SENDFILE_SUPPORT, Boolean.TRUE);
+		request.addHeader("Range", "bytes=4-");
+		MockHttpServletResponse response = get(request);
+
+		assertThat(response.getContentAsByteArray()).isEmpty();
+		assertThat(response.getContentLengthLong()).isEqualTo(6);
+		assertThat(request.getAttribute(PhotoController.SENDFILE_FILENAME)).isEqualTo(root.resolve(NAME).toString());
+		assertThat(request.getAttribute(PhotoController.SENDFILE_START)).isEqualTo(4L);
+		assertThat(request.getAttribute(PhotoController.SENDFILE_END)).isEqualTo(10L);
+	}
+
+	@Test
+	void answersMatchingETagAndRejectsUnknownNames() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("If-None-Match", "\"" + NAME + "\"");
+		assertThat(get(request).getStatus()).isEqualTo(304);
+
+		assertThatThrownBy(() -> controller.getPhoto("b".repeat(64), new MockHttpServletRequest(), new MockHttpServletResponse()))
+				.isInstanceOf(ResponseStatusException.class);
+		assertThatThrownBy(() -> controller.getPhoto("..%2Fsecret", new MockHttpServletRequest(), new MockHttpServletResponse()))
+				.isInstanceOf(ResponseStatusException.class);
+	}
+
+	private MockHttpServletResponse get(MockHttpServletRequest request) throws IOException {
+		request.setMethod("GET");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		controller.getPhoto(NAME, request, response);
+		return response;
+	}
+}
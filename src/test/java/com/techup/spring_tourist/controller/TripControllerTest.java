@@ -0,0 +1,136 @@
+package com.techup.spring_tourist.controller;
+
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.service.TripImportService;
+import com.techup.spring_tourist.service.TripResponseCache;
+import com.techup.spring_tourist.service.TripService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripControllerTest {
+
+	private static final OffsetDateTime UPDATED_AT = OffsetDateTime.of(2025, 3, 1, 10, 0, 0, 123_456_000, ZoneOffset.UTC);
+
+	private TripService tripService;
+	private TripResponseCache tripResponseCache;
+	private TripController controller;
+
+	@BeforeEach
+	void setUp() {
+		tripService = mock(TripService.class);
+		tripResponseCache = mock(TripResponseCache.class);
+		controller = new TripController(tripService, mock(TripImportService.class), tripResponseCache);
+		when(tripService.getTripVersion(1L)).thenReturn(Optional.of(UPDATED_AT));
+		when(tripService.getTripById(1L)).thenReturn(new Trip());
+	}
+
+	@Test
+	void answersMatchingETagWithoutLoadingTheTrip() throws IOException {
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		assertThat(controller.getTripById(1L, request("application/json", null, first))).isNotNull();
+		String etag = first.getHeader("ETag");
+		assertThat(etag).startsWith("\"");
+		assertThat(first.getDateHeader("Last-Modified")).isEqualTo(UPDATED_AT.toInstant().toEpochMilli() / 1000 * 1000);
+
+		MockHttpServletResponse second = new MockHttpServletResponse();
+		ResponseEntity<?> body = controller.getTripById(1L, request("application/json", etag, second));
+
+		assertThat(body).isNull();
+		assertThat(second.getStatus()).isEqualTo(304);
+		verify(tripService).getTripById(1L);
+	}
+
+	@Test
+	void differsPerRepresentationAndVersion() throws IOException {
+		MockHttpServletResponse json = new MockHttpServletResponse();
+		MockHttpServletResponse cbor = new MockHttpServletResponse();
+		controller.getTripById(1L, request("application/json", null, json));
+		controller.getTripById(1L, request("application/cbor", null, cbor));
+		assertThat(cbor.getHeader("ETag")).isNotEqualTo(json.getHeader("ETag"));
+
+		MockHttpServletResponse gzip = new MockHttpServletResponse();
+		MockHttpServletRequest gzipRequest = new MockHttpServletRequest("GET", "/api/trips/1");
+		gzipRequest.addHeader("Accept", "application/json");
+		gzipRequest.addHeader("Accept-Encoding", "gzip, deflate");
+		controller.getTripById(1L, new ServletWebRequest(gzipRequest, gzip));
+		assertThat(gzip.getHeader("ETag")).isNotEqualTo(json.getHeader("ETag"));
+
+		when(tripService.getTripVersion(1L)).thenReturn(Optional.of(UPDATED_AT.plusNanos(1_000)));
+		MockHttpServletResponse updated = new MockHttpServletResponse();
+		assertThat(controller.getTripById(1L, request("application/json", json.getHeader("ETag"), updated))).isNotNull();
+		assertThat(updated.getStatus()).isEqualTo(200);
+		assertThat(updated.getHeader("ETag")).isNotEqualTo(json.getHeader("ETag"));
+	}
+
+	@Test
+	void writesPreEncodedJsonForJsonClientsOnly() throws IOException {
+		byte[] json = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+		byte[] gzip = {31, -117, 8};
+		when(tripResponseCache.get(1L, UPDATED_AT)).thenReturn(new TripResponseCache.Encoded(UPDATED_AT, json, gzip));
+
+		MockHttpServletResponse plain = new MockHttpServletResponse();
+		assertThat(controller.getTripById(1L, request("*/*", null, plain))).isNull();
+		assertThat(plain.getContentAsByteArray()).isEqualTo(json);
+		assertThat(plain.getContentType()).isEqualTo("application/json");
+		assertThat(plain.getHeader("Content-Encoding")).isNull();
+
+		MockHttpServletResponse compressed = new MockHttpServletResponse();
+		MockHttpServletRequest gzipRequest = new MockHttpServletRequest("GET", "/api/trips/1");
+		gzipRequest.addHeader("Accept-Encoding", "gzip");
+		controller.getTripById(1L, new ServletWebRequest(gzipRequest, compressed));
+		assertThat(compressed.getContentAsByteArray()).isEqualTo(gzip);
+		assertThat(compressed.getHeader("Content-Encoding")).isEqualTo("gzip");
+		assertThat(compressed.getContentLength()).isEqualTo(gzip.length);
+
+		ResponseEntity<?> cbor = controller.getTripById(1L, request("application/cbor", null, new MockHttpServletResponse()));
+		assertThat(cbor.getBody()).isInstanceOf(Trip.class);
+		verify(tripService).getTripById(1L);
+	}
+
+	@Test
+	void listETagFollowsVersionAndParameters() {
+		when(tripService.getTripsVersion()).thenReturn("2025-03-01T10:00:00Z/42");
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		controller.getAllTrips(null, 0, 10, null, true, null, "all", request("application/json", null, first));
+		String etag = first.getHeader("ETag");
+
+		MockHttpServletResponse same = new MockHttpServletResponse();
+		assertThat(controller.getAllTrips(null, 0, 10, null, true, null, "all", request("application/json", etag, same))).isNull();
+		assertThat(same.getStatus()).isEqualTo(304);
+
+		MockHttpServletResponse nextPage = new MockHttpServletResponse();
+		controller.getAllTrips(null, 1, 10, null, true, null, "all", request("application/json", etag, nextPage));
+		assertThat(nextPage.getStatus()).isEqualTo(200);
+
+		when(tripService.getTripsVersion()).thenReturn("2025-03-01T10:00:00Z/41");
+		MockHttpServletResponse afterDelete = new MockHttpServletResponse();
+		controller.getAllTrips(null, 0, 10, null, true, null, "all", request("application/json", etag, afterDelete));
+		assertThat(afterDelete.getStatus()).isEqualTo(200);
+		verify(tripService, never()).getTripById(1L);
+	}
+
+	private static ServletWebRequest request(String accept, String ifNoneMatch, MockHttpServletResponse response) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trips");
+		request.addHeader("Accept", accept);
+		if (ifNoneMatch != null) {
+			request.addHeader("If-None-Match", ifNoneMatch);
+		}
+		return new ServletWebRequest(request, response);
+	}
+}
@@ -0,0 +1,62 @@
+package com.techup.spring_tourist.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TripTest {
+
+	// As configured by spring.jackson.mapper.default-view-inclusion
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+			.featuresToEnable(MapperFeature.DEFAULT_VIEW_INCLUSION)
+			.build();
+
+	@Test
+	void summaryCarriesThumbnailsOnly() throws Exception {
+		Trip trip = trip();
+
+		JsonNode summary = mapper.readTree(mapper.writerWithView(Trip.Summary.class).writeValueAsBytes(trip));
+		JsonNode detail = mapper.readTree(mapper.writeValueAsBytes(trip));
+
+		assertThat(summary.get("title").asText()).isEqualTo("Krabi");
+		assertThat(summary.get("thumbnails").get(0).asText()).isEqualTo("a-thumb.jpg");
+		assertThat(summary.has("photos")).isFalse();
+		assertThat(summary.has("mediumPhotos")).isFalse();
+		assertThat(detail.get("photos").get(0).asText()).isEqualTo("a.jpg");
+		assertThat(detail.get("mediumPhotos").get(0).asText()).isEqualTo("a-medium.jpg");
+		assertThat(detail.get("thumbnails").get(0).asText()).isEqualTo("a-thumb.jpg");
+	}
+
+	@Test
+	void tripsWithoutVariantsShowTheirPhotosAsThumbnails() throws Exception {
+		Trip trip = trip();
+		trip.setThumbnails(null);
+
+		JsonNode summary = mapper.readTree(mapper.writerWithView(Trip.Summary.class).writeValueAsBytes(trip));
+
+		assertThat(summary.get("thumbnails").get(0).asText()).isEqualTo("a.jpg");
+	}
+
+	@Test
+	void variantsAreNotReadFromRequests() throws Exception {
+		Trip trip = mapper.readValue(
+				"{\"photos\":[\"a.jpg\"],\"thumbnails\":[\"x.jpg\"],\"mediumPhotos\":[\"y.jpg\"]}", Trip.class);
+
+		assertThat(trip.getPhotos()).containsExactly("a.jpg");
+		assertThat(trip.getThumbnails()).isNull();
+		assertThat(trip.getMediumPhotos()).isNull();
+	}
+
+	private static Trip trip() {
+		Trip trip = new Trip();
+		trip.setTitle("Krabi");
+		trip.setPhotos(new String[] { "a.jpg" });
+		trip.setMediumPhotos(new String[] { "a-medium.jpg" });
+		trip.setThumbnails(new String[] { "a-thumb.jpg" });
+		return trip;
+	}
+}
@@ -0,0 +1,102 @@
+package com.techup.spring_tourist.repository;
+
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:trips;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+		"spring.sql.init.schema-locations=classpath:h2/schema.sql",
+		"spring.jpa.hibernate.ddl-auto=none",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.show-sql=false"
+})
+class TripRepositoryQueryCountTest {
+
+	@Autowired
+	private TripRepository tripRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private User author;
+
+	@BeforeEach
+	void setUp() {
+		for (int a = 0; a < 3; a++) {
+			User user = new User();
+			user.setEmail("author" + a + "@example.com");
+			user.setPasswordHash("x");
+			user.setDisplayName("Author " + a);
+			entityManager.persist(user);
+			author = user;
+			for (int i = 0; i < 5; i++) {
+				Trip trip = new Trip();
+				trip.setTitle("Trip " + a + "-" + i);
+				trip.setLocation("Krabi");
+				trip.setAuthor(user);
+				entityManager.persist(trip);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void listQueriesLoadAuthorsInTheSameStatement() {
+		assertSingleStatement(() -> tripRepository.findTripSlice(PageRequest.of(0, 10)).getContent());
+		assertSingleStatement(() -> tripRepository.findFirstKeysetPage(Limit.of(10)));
+		assertSingleStatement(() -> tripRepository.findTripSliceByAuthor(author, PageRequest.of(0, 10)).getContent());
+		assertSingleStatement(() -> tripRepository.findFirstKeysetPageByAuthor(author, Limit.of(10)));
+		assertSingleStatement(() -> tripRepository.findByAuthorOrderByCreatedAtDesc(author));
+		assertSingleStatement(() -> tripRepository.findAll());
+	}
+
+	@Test
+	void pagedQueryAddsOnlyTheCount() {
+		Statistics statistics = statistics();
+		statistics.clear();
+
+		List<Trip> trips = tripRepository.findByAuthorOrderByCreatedAtDesc(author, PageRequest.of(0, 2)).getContent();
+		trips.forEach(trip -> trip.getAuthor().getDisplayName());
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	private void assertSingleStatement(Supplier<List<Trip>> query) {
+		entityManager.clear();
+		Statistics statistics = statistics();
+		statistics.clear();
+
+		List<Trip> trips = query.get();
+		// Touch what the JSON serializer reads; a lazy author would issue one query per distinct author here
+		trips.forEach(trip -> trip.getAuthor().getDisplayName());
+
+		assertThat(trips).isNotEmpty();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	private Statistics statistics() {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+}
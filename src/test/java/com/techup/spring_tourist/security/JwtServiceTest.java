@@ -0,0 +1,126 @@
+package com.techup.spring_tourist.security;
+
+import com.techup.spring_tourist.entity.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+	private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final MutableClock clock = new MutableClock(Instant.parse("2025-03-01T10:00:00Z"));
+
+	private JwtService jwtService(long expirationMs) {
+		JwtService jwtService = new JwtService(meterRegistry, clock);
+		ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+		ReflectionTestUtils.setField(jwtService, "expirationMs", expirationMs);
+		ReflectionTestUtils.setField(jwtService, "cacheMaximumSize", 100L);
+		ReflectionTestUtils.setField(jwtService, "cacheTtl", Duration.ofMinutes(5));
+		jwtService.init();
+		return jwtService;
+	}
+
+	@Test
+	void userTokensCarryIdAndDisplayName() {
+		User user = new User();
+		user.setId(42L);
+		user.setEmail("traveller@example.com");
+		user.setDisplayName("Traveller");
+
+		JwtService jwtService = jwtService(60_000);
+
+		JwtPrincipal principal = jwtService.verify(jwtService.generateToken(user));
+
+		assertThat(principal.getName()).isEqualTo("traveller@example.com");
+		assertThat(principal.getUserId()).isEqualTo(42L);
+		assertThat(principal.getDisplayName()).isEqualTo("Traveller");
+		assertThat(principal.hasUserClaims()).isTrue();
+	}
+
+	@Test
+	void emailOnlyTokensHaveNoUserClaims() {
+		JwtService jwtService = jwtService(60_000);
+
+		JwtPrincipal principal = jwtService.verify(jwtService.generateToken("old@example.com"));
+
+		assertThat(principal.hasUserClaims()).isFalse();
+		assertThat(jwtService.extractEmail(jwtService.generateToken("old@example.com"))).isEqualTo("old@example.com");
+	}
+
+	@Test
+	void cachedVerificationEndsWithTheToken() {
+		JwtService jwtService = jwtService(2_000);
+		String token = jwtService.generateToken("short@example.com");
+
+		assertThat(jwtService.isTokenValid(token)).isTrue();
+		clock.advance(Duration.ofMillis(1_900));
+		assertThat(jwtService.isTokenValid(token)).isTrue();
+		clock.advance(Duration.ofMillis(200));
+
+		assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(ExpiredJwtException.class);
+	}
+
+	@Test
+	void rejectsTamperedTokens() {
+		JwtService jwtService = jwtService(60_000);
+		String token = jwtService.generateToken("someone@example.com");
+
+		assertThatThrownBy(() -> jwtService.verify(token.substring(0, token.length() - 2) + "xx"))
+				.isInstanceOf(JwtException.class);
+	}
+
+	@Test
+	void timesVerificationByResult() {
+		JwtService jwtService = jwtService(60_000);
+		String token = jwtService.generateToken("someone@example.com");
+
+		jwtService.verify(token);
+		jwtService.verify(token);
+		jwtService.isTokenValid(token.substring(0, token.length() - 2) + "xx");
+
+		assertThat(meterRegistry.get("auth.jwt.verify").tag("result", "verified").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("auth.jwt.verify").tag("result", "cached").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("auth.jwt.verify").tag("result", "rejected").timer().count()).isEqualTo(1);
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant now;
+
+		MutableClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.techup.spring_tourist.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeoCellIndexTest {
+
+	@Test
+	void returnsTripsInsideRadiusNearestFirst() {
+		GeoCellIndex index = new GeoCellIndex(0.1);
+		index.put(1L, 13.7563, 100.5018, null); // Bangkok
+		index.put(2L, 13.7469, 100.5349, null); // ~3.7 km east
+		index.put(3L, 18.7883, 98.9853, null);  // Chiang Mai
+
+		List<TripGeoIndex.Hit> hits = index.nearest(13.7500, 100.5300, 10, 10);
+
+		assertThat(hits).extracting(TripGeoIndex.Hit::getTripId).containsExactly(2L, 1L);
+		assertThat(hits.get(0).getDistanceKm()).isLessThan(1);
+	}
+
+	@Test
+	void radiusSearchCrossesTheAntimeridian() {
+		GeoCellIndex index = new GeoCellIndex(0.1);
+		index.put(1L, -17.0, 179.95, null);
+		index.put(2L, -17.0, -179.95, null);
+
+		assertThat(index.nearest(-17.0, 179.99, 20, 10))
+				.extracting(TripGeoIndex.Hit::getTripId)
+				.containsExactlyInAnyOrder(1L, 2L);
+	}
+
+	@Test
+	void boundingBoxWrapsWhenMinLngExceedsMaxLng() {
+		GeoCellIndex index = new GeoCellIndex(0.1);
+		index.put(1L, 0.5, 179.5, null);
+		index.put(2L, 0.5, -179.5, null);
+		index.put(3L, 0.5, 0.0, null);
+
+		assertThat(index.within(0, 1, 179, -179, 10))
+				.extracting(TripGeoIndex.Hit::getTripId)
+				.containsExactlyInAnyOrder(1L, 2L);
+	}
+
+	@Test
+	void movingAndRemovingTripsUpdatesCells() {
+		GeoCellIndex index = new GeoCellIndex(0.1);
+		index.put(1L, 10.0, 10.0, null);
+		index.put(1L, 20.0, 20.0, null);
+
+		assertThat(index.nearest(10.0, 10.0, 5, 10)).isEmpty();
+		assertThat(index.nearest(20.0, 20.0, 5, 10)).hasSize(1);
+
+		index.put(1L, null, null, null);
+
+		assertThat(index.size()).isZero();
+	}
+}
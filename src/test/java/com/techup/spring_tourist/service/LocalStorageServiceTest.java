@@ -0,0 +1,89 @@
+package com.techup.spring_tourist.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalStorageServiceTest {
+
+	@TempDir
+	Path root;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private LocalStorageService storage;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		storage = new LocalStorageService(meterRegistry);
+		ReflectionTestUtils.setField(storage, "root", root);
+		ReflectionTestUtils.setField(storage, "publicUrl", "https://photos.example.com/api/photos/");
+		storage.init();
+	}
+
+	@Test
+	void writesContentUnderItsHashAndSkipsItAfterwards() throws IOException {
+		byte[] bytes = "a photo".getBytes(StandardCharsets.UTF_8);
+		String url = storage.contentUrl(hash(bytes), "Beach.JPG");
+		StorageService.Upload upload = new StorageService.Upload(url, new ByteArrayResource(bytes), "image/jpeg", bytes.length);
+
+		storage.uploadAll(List.of(upload, upload));
+		storage.uploadAll(List.of(upload));
+
+		assertThat(url).isEqualTo("https://photos.example.com/api/photos/" + hash(bytes) + ".jpg");
+		Path stored = storage.resolve(hash(bytes) + ".jpg").orElseThrow();
+		assertThat(stored).hasBinaryContent(bytes);
+		// Only the finished file is left; the temp file it was written to has been renamed
+		try (var files = Files.list(root)) {
+			assertThat(files).containsExactly(stored);
+		}
+		assertThat(meterRegistry.get("storage.upload").tag("outcome", "success").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("storage.upload.skipped").counter().count()).isEqualTo(2);
+	}
+
+	@Test
+	void copiesSpooledFilesAndDeletesByUrl() throws IOException {
+		byte[] bytes = new byte[200_000];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) i;
+		}
+		Path spooled = Files.write(Files.createTempFile("variant", ".jpg"), bytes);
+		try {
+			String url = storage.contentUrl(hash(bytes), "thumb.jpg");
+			storage.uploadAll(List.of(new StorageService.Upload(url, new FileSystemResource(spooled), "image/jpeg", bytes.length)));
+
+			Path stored = storage.resolve(hash(bytes) + ".jpg").orElseThrow();
+			assertThat(stored).hasBinaryContent(bytes);
+
+			storage.deleteFiles(List.of(url, "https://elsewhere.example.com/" + hash(bytes) + ".jpg"));
+			assertThat(stored).doesNotExist();
+		} finally {
+			Files.deleteIfExists(spooled);
+		}
+	}
+
+	@Test
+	void resolvesOnlyContentHashNames() {
+		assertThat(storage.resolve("0".repeat(64) + ".png")).isPresent();
+		assertThat(storage.resolve("0".repeat(64))).isPresent();
+		assertThat(storage.resolve("../" + "0".repeat(64))).isEmpty();
+		assertThat(storage.resolve("photo.png")).isEmpty();
+		assertThat(storage.resolve(null)).isEmpty();
+	}
+
+	private static String hash(byte[] bytes) throws IOException {
+		return ContentHash.of(new ByteArrayInputStream(bytes));
+	}
+}
@@ -0,0 +1,84 @@
+package com.techup.spring_tourist.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private PasswordHasher hasher;
+
+	private PasswordHasher passwordHasher(int strength, int queueCapacity) {
+		hasher = new PasswordHasher(new BCryptPasswordEncoder(strength), meterRegistry);
+		ReflectionTestUtils.setField(hasher, "threads", 1);
+		ReflectionTestUtils.setField(hasher, "queueCapacity", queueCapacity);
+		ReflectionTestUtils.setField(hasher, "timeout", Duration.ofSeconds(10));
+		ReflectionTestUtils.setField(hasher, "strength", strength);
+		hasher.init();
+		return hasher;
+	}
+
+	@AfterEach
+	void tearDown() {
+		hasher.shutdown();
+	}
+
+	@Test
+	void hashesAndVerifiesOnThePool() {
+		PasswordHasher hasher = passwordHasher(4, 10);
+
+		String hash = hasher.hash("secret");
+
+		assertThat(hasher.matches("secret", hash)).isTrue();
+		assertThat(hasher.matches("wrong", hash)).isFalse();
+		assertThat(meterRegistry.get("auth.password.verify").timer().count()).isEqualTo(2);
+	}
+
+	@Test
+	void needsRehashWhenTheCostChangesEitherWay() {
+		PasswordHasher hasher = passwordHasher(5, 10);
+
+		assertThat(hasher.needsRehash(new BCryptPasswordEncoder(5).encode("secret"))).isFalse();
+		assertThat(hasher.needsRehash(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+		assertThat(hasher.needsRehash(new BCryptPasswordEncoder(6).encode("secret"))).isTrue();
+		assertThat(hasher.needsRehash("not a bcrypt hash")).isTrue();
+	}
+
+	@Test
+	void refusesWithServiceUnavailableWhenTheQueueIsFull() throws InterruptedException {
+		PasswordHasher hasher = passwordHasher(4, 1);
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(hasher, "executor");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		executor.execute(() -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		started.await();
+		executor.execute(() -> { });
+
+		try {
+			assertThatThrownBy(() -> hasher.hash("secret"))
+					.isInstanceOf(ResponseStatusException.class)
+					.satisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode().value()).isEqualTo(503));
+			assertThat(meterRegistry.get("auth.password.rejected").counter().count()).isEqualTo(1);
+		} finally {
+			release.countDown();
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package com.techup.spring_tourist.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhotoProcessorTest {
+
+	private PhotoProcessor processor;
+
+	@BeforeEach
+	void setUp() {
+		processor = new PhotoProcessor();
+		ReflectionTestUtils.setField(processor, "threads", 2);
+		ReflectionTestUtils.setField(processor, "queueCapacity", 10);
+		ReflectionTestUtils.setField(processor, "thumbnailSize", 320);
+		ReflectionTestUtils.setField(processor, "mediumSize", 1280);
+		ReflectionTestUtils.setField(processor, "quality", 0.8f);
+		ReflectionTestUtils.setField(processor, "maxPixels", 50_000_000L);
+		ReflectionTestUtils.setField(processor, "timeout", Duration.ofSeconds(30));
+		processor.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		processor.shutdown();
+	}
+
+	@Test
+	void producesScaledJpegVariantsInInputOrder() throws IOException {
+		MockMultipartFile wide = new MockMultipartFile("photos", "beach.png", "image/png", png(2000, 1000));
+		MockMultipartFile small = new MockMultipartFile("photos", "icon.png", "image/png", png(200, 100));
+
+		List<ProcessedPhoto> photos = processor.process(new MockMultipartFile[] {wide, small});
+		try {
+			ProcessedPhoto first = photos.get(0);
+			assertThat(first.isProcessed()).isTrue();
+			assertThat(first.getOriginal().filename()).isEqualTo("beach.jpg");
+			assertThat(first.getThumbnail().contentType()).isEqualTo("image/jpeg");
+			assertThat(dimensions(first.getOriginal())).containsExactly(2000, 1000);
+			assertThat(dimensions(first.getMedium())).containsExactly(1280, 640);
+			assertThat(dimensions(first.getThumbnail())).containsExactly(320, 160);
+
+			// Never upscaled
+			assertThat(dimensions(photos.get(1).getThumbnail())).containsExactly(200, 100);
+		} finally {
+			photos.forEach(ProcessedPhoto::close);
+		}
+	}
+
+	@Test
+	void passesUndecodableFilesThrough() {
+		byte[] content = "not an image".getBytes();
+		MockMultipartFile file = new MockMultipartFile("photos", "photo.heic", "image/heic", content);
+
+		List<ProcessedPhoto> photos = processor.process(new MockMultipartFile[] {file});
+
+		assertThat(photos.get(0).isProcessed()).isFalse();
+		assertThat(photos.get(0).getOriginal().content()).isSameAs(file);
+		assertThat(photos.get(0).getOriginal().contentType()).isEqualTo("image/heic");
+	}
+
+	@Test
+	void deletesTempFilesOnClose() throws IOException {
+		MockMultipartFile file = new MockMultipartFile("photos", "beach.png", "image/png", png(400, 300));
+
+		ProcessedPhoto photo = processor.process(new MockMultipartFile[] {file}).get(0);
+		assertThat(photo.getTempFiles()).hasSize(3).allMatch(path -> path.toFile().exists());
+
+		photo.close();
+
+		assertThat(photo.getTempFiles()).noneMatch(path -> path.toFile().exists());
+	}
+
+	@Test
+	void hashesWrittenAndPassedThroughContent() throws IOException {
+		MockMultipartFile image = new MockMultipartFile("photos", "beach.png", "image/png", png(400, 300));
+		MockMultipartFile other = new MockMultipartFile("photos", "photo.heic", "image/heic", "not an image".getBytes());
+
+		List<ProcessedPhoto> photos = processor.process(new MockMultipartFile[] {image, image, other});
+		try {
+			ProcessedPhoto.Variant thumbnail = photos.get(0).getThumbnail();
+			try (InputStream in = thumbnail.content().getInputStream()) {
+				assertThat(thumbnail.sha256()).hasSize(64).isEqualTo(ContentHash.of(in));
+			}
+			// Same input, same bytes out: a re-upload maps onto the stored objects
+			assertThat(photos.get(1).getThumbnail().sha256()).isEqualTo(thumbnail.sha256());
+			assertThat(photos.get(0).getOriginal().sha256()).isNotEqualTo(thumbnail.sha256());
+			assertThat(photos.get(2).getOriginal().sha256())
+					.isEqualTo(ContentHash.of(new ByteArrayInputStream("not an image".getBytes())));
+		} finally {
+			photos.forEach(ProcessedPhoto::close);
+		}
+	}
+
+	@Test
+	void readsExifOrientation() throws IOException {
+		assertThat(ExifOrientation.read(new ByteArrayInputStream(jpegWithOrientation(6, false)))).isEqualTo(6);
+		assertThat(ExifOrientation.read(new ByteArrayInputStream(jpegWithOrientation(8, true)))).isEqualTo(8);
+		assertThat(ExifOrientation.read(new ByteArrayInputStream(png(10, 10)))).isEqualTo(ExifOrientation.NORMAL);
+	}
+
+	@Test
+	void rotatesQuarterTurnsAndSwapsDimensions() {
+		BufferedImage image = new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB);
+		image.setRGB(0, 0, 0xFF0000);
+
+		BufferedImage clockwise = ExifOrientation.apply(image, 6);
+		BufferedImage counterClockwise = ExifOrientation.apply(image, 8);
+
+		assertThat(clockwise.getWidth()).isEqualTo(2);
+		assertThat(clockwise.getHeight()).isEqualTo(4);
+		// Top-left ends up top-right after a clockwise turn, bottom-left after a counter-clockwise one
+		assertThat(clockwise.getRGB(1, 0) & 0xFFFFFF).isEqualTo(0xFF0000);
+		assertThat(counterClockwise.getRGB(0, 3) & 0xFFFFFF).isEqualTo(0xFF0000);
+	}
+
+	private static int[] dimensions(ProcessedPhoto.Variant variant) throws IOException {
+		try (InputStream in = variant.content().getInputStream()) {
+			BufferedImage image = ImageIO.read(in);
+			return new int[] {image.getWidth(), image.getHeight()};
+		}
+	}
+
+	private static byte[] png(int width, int height) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+
+	// SOI, then an APP1 segment holding a one-entry IFD0 with the orientation tag
+	private static byte[] jpegWithOrientation(int orientation, boolean littleEndian) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] tiff = littleEndian
+				? new byte[] {'I', 'I', 42, 0, 8, 0, 0, 0, 1, 0, 0x12, 0x01, 3, 0, 1, 0, 0, 0, (byte) orientation, 0, 0, 0}
+				: new byte[] {'M', 'M', 0, 42, 0, 0, 0, 8, 0, 1, 0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0};
+		int length = 2 + 6 + tiff.length;
+		out.writeBytes(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE1, (byte) (length >> 8), (byte) length});
+		out.writeBytes(new byte[] {'E', 'x', 'i', 'f', 0, 0});
+		out.writeBytes(tiff);
+		out.writeBytes(new byte[] {(byte) 0xFF, (byte) 0xD9});
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,262 @@
+package com.techup.spring_tourist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.techup.spring_tourist.entity.PendingUpload;
+import com.techup.spring_tourist.repository.PendingUploadRepository;
+import com.techup.spring_tourist.repository.TripRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the Supabase client against a local stand-in for the storage API that records what it receives.
+ * Each PUT is answered after a short delay, or once other uploads are stored, so concurrent uploads overlap.
+ */
+class SupabaseStorageServiceTest {
+
+	private static final String OBJECT_PATH = "/storage/v1/object/";
+	private static final int CONCURRENCY = 2;
+	private static final Duration LATENCY = Duration.ofMillis(100);
+
+	private HttpServer server;
+	private final Map<String, byte[]> stored = new ConcurrentHashMap<>();
+	private final Map<String, String> contentLengths = new ConcurrentHashMap<>();
+	private final Map<String, CountDownLatch> held = new ConcurrentHashMap<>();
+	private final Set<String> failing = ConcurrentHashMap.newKeySet();
+	private final List<String> puts = new CopyOnWriteArrayList<>();
+	private final List<List<String>> deletes = new CopyOnWriteArrayList<>();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	private SupabaseStorageService storageService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext(OBJECT_PATH, this::handle);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.start();
+
+		storageService = new SupabaseStorageService(WebClient.create(), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(storageService, "supabaseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+		ReflectionTestUtils.setField(storageService, "bucket", "uploads");
+		ReflectionTestUtils.setField(storageService, "serviceRoleKey", "service-key");
+		ReflectionTestUtils.setField(storageService, "uploadConcurrency", CONCURRENCY);
+		ReflectionTestUtils.setField(storageService, "dedupeMaximumSize", 1_000L);
+		ReflectionTestUtils.setField(storageService, "dedupeTtl", Duration.ofMinutes(10));
+		storageService.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	void fanOutStaysWithinTheConfiguredConcurrency() {
+		// Held until another upload is stored, which can only happen if uploads overlap
+		held.put("object0.jpg", new CountDownLatch(1));
+		List<StorageService.Upload> uploads = IntStream.range(0, 8)
+				.mapToObj(i -> upload("object" + i, "bytes " + i))
+				.toList();
+
+		storageService.uploadAll(uploads);
+
+		assertThat(puts).hasSize(8);
+		assertThat(maxInFlight).hasValue(CONCURRENCY);
+	}
+
+	@Test
+	void photoUrlsKeepTheOrderOfTheFilesWhenUploadsFinishOutOfOrder() {
+		// The first photo is answered only after the other two are stored
+		held.put("photo0.jpg", new CountDownLatch(2));
+		TripPhotoUploader uploader = uploader(mock(PendingUploadRepository.class), "photo0", "photo1", "photo2");
+
+		TripPhotoUploader.Uploaded uploaded = uploader.upload(new MultipartFile[3]);
+
+		assertThat(puts).containsExactly("photo1.jpg", "photo2.jpg", "photo0.jpg");
+		assertThat(uploaded.getPhotos()).containsExactly(
+				storageService.contentUrl("photo0", "a.jpg"),
+				storageService.contentUrl("photo1", "a.jpg"),
+				storageService.contentUrl("photo2", "a.jpg"));
+		for (int i = 0; i < 3; i++) {
+			assertThat(stored.get("photo" + i + ".jpg")).asString(StandardCharsets.UTF_8).isEqualTo("content of photo" + i);
+		}
+	}
+
+	@Test
+	void failedUploadDeletesTheOthersThroughThePendingRecord() {
+		failing.add("photo2.jpg");
+		PendingUploadRepository pendingUploadRepository = mock(PendingUploadRepository.class);
+		TripPhotoUploader uploader = uploader(pendingUploadRepository, "photo0", "photo1", "photo2", "photo3");
+
+		assertThatThrownBy(() -> uploader.upload(new MultipartFile[4]))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR));
+
+		assertThat(deletes).hasSize(1);
+		assertThat(deletes.get(0)).containsExactlyInAnyOrder("photo0.jpg", "photo1.jpg", "photo2.jpg", "photo3.jpg");
+		verify(pendingUploadRepository).deleteById(1L);
+
+		// Deleted objects are no longer assumed to exist, so a retry uploads them again
+		failing.clear();
+		puts.clear();
+		storageService.uploadAll(List.of(upload("photo0", "content of photo0")));
+		assertThat(puts).containsExactly("photo0.jpg");
+	}
+
+	@Test
+	void bodyIsStreamedFromTheSourceWithItsLength() {
+		byte[] content = new byte[300_000];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) i;
+		}
+		AtomicInteger opened = new AtomicInteger();
+		InputStreamSource source = () -> {
+			opened.incrementAndGet();
+			return new ByteArrayResource(content).getInputStream();
+		};
+
+		storageService.uploadAll(List.of(new StorageService.Upload(
+				storageService.contentUrl("large", "a.jpg"), source, "image/jpeg", content.length)));
+
+		assertThat(opened).hasValue(1);
+		assertThat(contentLengths.get("large.jpg")).isEqualTo("300000");
+		assertThat(stored.get("large.jpg")).isEqualTo(content);
+	}
+
+	@Test
+	void contentStoredRecentlyIsNotUploadedAgain() {
+		storageService.uploadAll(List.of(upload("same", "bytes"), upload("same", "bytes")));
+		storageService.uploadAll(List.of(upload("same", "bytes"), upload("other", "other bytes")));
+
+		assertThat(puts).containsExactly("same.jpg", "other.jpg");
+	}
+
+	private StorageService.Upload upload(String sha256, String content) {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		return new StorageService.Upload(storageService.contentUrl(sha256, "a.jpg"), new ByteArrayResource(bytes),
+				"image/jpeg", bytes.length);
+	}
+
+	// Real storage and pending-upload bookkeeping; only the database and image processing are mocked
+	private TripPhotoUploader uploader(PendingUploadRepository pendingUploadRepository, String... hashes) {
+		List<ProcessedPhoto> processed = new ArrayList<>();
+		for (String hash : hashes) {
+			byte[] bytes = ("content of " + hash).getBytes(StandardCharsets.UTF_8);
+			processed.add(ProcessedPhoto.unprocessed(new ProcessedPhoto.Variant(
+					"a.jpg", new ByteArrayResource(bytes), "image/jpeg", bytes.length, hash)));
+		}
+		PhotoProcessor photoProcessor = mock(PhotoProcessor.class);
+		when(photoProcessor.process(any(MultipartFile[].class))).thenReturn(processed);
+		when(pendingUploadRepository.save(any(PendingUpload.class))).thenAnswer(invocation -> {
+			PendingUpload pending = invocation.getArgument(0);
+			pending.setId(1L);
+			return pending;
+		});
+		when(pendingUploadRepository.findUrlsPendingElsewhere(anyLong(), anyCollection())).thenReturn(List.of());
+		TripRepository tripRepository = mock(TripRepository.class);
+		when(tripRepository.findReferencedPhotos(anyCollection())).thenReturn(List.of());
+
+		PendingUploadService pendingUploadService =
+				new PendingUploadService(pendingUploadRepository, tripRepository, storageService);
+		return new TripPhotoUploader(photoProcessor, storageService, pendingUploadService);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			byte[] body;
+			try (InputStream in = exchange.getRequestBody()) {
+				body = in.readAllBytes();
+			}
+			String path = exchange.getRequestURI().getPath();
+			String name = path.substring(path.lastIndexOf('/') + 1);
+			switch (exchange.getRequestMethod()) {
+				case "PUT" -> {
+					int current = inFlight.incrementAndGet();
+					maxInFlight.accumulateAndGet(current, Math::max);
+					try {
+						CountDownLatch hold = held.get(name);
+						if (hold == null) {
+							Thread.sleep(LATENCY);
+						} else if (!hold.await(10, TimeUnit.SECONDS)) {
+							respond(exchange, 504, "{\"error\":\"Held upload never released\"}");
+							return;
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						inFlight.decrementAndGet();
+					}
+					if (failing.contains(name)) {
+						respond(exchange, 500, "{\"error\":\"Internal server error\"}");
+						return;
+					}
+					puts.add(name);
+					stored.put(name, body);
+					contentLengths.put(name, exchange.getRequestHeaders().getFirst("Content-Length"));
+					for (Map.Entry<String, CountDownLatch> hold : held.entrySet()) {
+						if (!hold.getKey().equals(name)) {
+							hold.getValue().countDown();
+						}
+					}
+					respond(exchange, 200, "{\"Key\":\"" + name + "\"}");
+				}
+				case "DELETE" -> {
+					Map<?, ?> request = new ObjectMapper().readValue(body, Map.class);
+					List<String> prefixes = new ArrayList<>();
+					for (Object prefix : (List<?>) request.get("prefixes")) {
+						prefixes.add((String) prefix);
+					}
+					deletes.add(Collections.unmodifiableList(prefixes));
+					respond(exchange, 200, "[]");
+				}
+				default -> respond(exchange, 405, "{\"error\":\"Method not allowed\"}");
+			}
+		}
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		exchange.getResponseBody().write(bytes);
+	}
+}
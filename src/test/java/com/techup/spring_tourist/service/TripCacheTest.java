@@ -0,0 +1,146 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.entity.User;
+import com.techup.spring_tourist.event.TripChangedEvent;
+import com.techup.spring_tourist.repository.TripRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripCacheTest {
+
+	private TripRepository tripRepository;
+	private TripCache tripCache;
+
+	@BeforeEach
+	void setUp() {
+		tripRepository = mock(TripRepository.class);
+		tripCache = new TripCache(tripRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(10));
+		when(tripRepository.findWithAuthorByIdIn(any())).thenAnswer(invocation -> {
+			Collection<Long> ids = invocation.getArgument(0);
+			return ids.stream().map(id -> trip(id, "Trip " + id)).toList();
+		});
+	}
+
+	@Test
+	void hitsServeTripAndAuthorWithoutQueries() {
+		tripCache.getAll(List.of(1L, 2L));
+
+		List<Trip> hits = tripCache.getAll(List.of(2L, 1L));
+		Optional<Trip> hit = tripCache.get(1L);
+
+		assertThat(hits).extracting(Trip::getId).containsExactly(2L, 1L);
+		assertThat(hit).map(trip -> trip.getAuthor().getEmail()).contains("author@example.com");
+		verify(tripRepository, times(1)).findWithAuthorByIdIn(any());
+	}
+
+	@Test
+	void onlyMissesAreLoaded() {
+		tripCache.get(1L);
+
+		tripCache.getAll(List.of(1L, 2L, 2L, 3L));
+
+		verify(tripRepository).findWithAuthorByIdIn(List.of(1L));
+		verify(tripRepository).findWithAuthorByIdIn(List.of(2L, 3L));
+		verify(tripRepository, times(2)).findWithAuthorByIdIn(any());
+	}
+
+	@Test
+	void updatesAndDeletesInvalidateOnlyTheirTrip() {
+		tripCache.getAll(List.of(1L, 2L, 3L));
+
+		tripCache.onTripChanged(TripChangedEvent.updated(trip(1L, "New")));
+		tripCache.onTripChanged(TripChangedEvent.deleted(2L));
+
+		assertThat(tripCache.peek(1L)).isEmpty();
+		assertThat(tripCache.peek(2L)).isEmpty();
+		assertThat(tripCache.peek(3L)).isPresent();
+		tripCache.getAll(List.of(1L, 2L, 3L));
+		verify(tripRepository).findWithAuthorByIdIn(List.of(1L, 2L));
+	}
+
+	@Test
+	void createsDoNotInvalidate() {
+		tripCache.get(1L);
+
+		tripCache.onTripChanged(TripChangedEvent.created(trip(1L, "Trip 1")));
+		tripCache.get(1L);
+
+		assertThat(tripCache.peek(1L)).isPresent();
+		verify(tripRepository, times(1)).findWithAuthorByIdIn(any());
+	}
+
+	@Test
+	void entriesAreDetachedFromTheLoadedEntity() {
+		Trip loaded = trip(1L, "Original");
+		loaded.getAuthor().setDisplayName("Author");
+		doAnswer(invocation -> List.of(loaded)).when(tripRepository).findWithAuthorByIdIn(any());
+
+		Trip cached = tripCache.get(1L).orElseThrow();
+		loaded.setTitle("Changed");
+		loaded.getPhotos()[0] = "changed.jpg";
+		loaded.getTags()[0] = "changed";
+		loaded.getAuthor().setEmail("changed@example.com");
+
+		assertThat(cached).isNotSameAs(loaded);
+		assertThat(cached.getTitle()).isEqualTo("Original");
+		assertThat(cached.getPhotos()).containsExactly("a.jpg");
+		assertThat(cached.getTags()).containsExactly("beach");
+		assertThat(cached.getAuthor()).isNotSameAs(loaded.getAuthor());
+		assertThat(cached.getAuthor().getEmail()).isEqualTo("author@example.com");
+		assertThat(cached.getAuthor().getDisplayName()).isEqualTo("Author");
+		assertThat(cached.getAuthor().getPasswordHash()).isNull();
+	}
+
+	@Test
+	void loadOverlappingAnUpdateIsServedButNotCached() {
+		doAnswer(invocation -> {
+			// The update commits while the miss is still reading the old row
+			tripCache.onTripChanged(TripChangedEvent.updated(trip(1L, "New")));
+			return List.of(trip(1L, "Old"));
+		}).when(tripRepository).findWithAuthorByIdIn(any());
+
+		assertThat(tripCache.get(1L)).map(Trip::getTitle).contains("Old");
+		assertThat(tripCache.peek(1L)).isEmpty();
+	}
+
+	@Test
+	void loadOverlappingAnotherTripsUpdateIsCached() {
+		doAnswer(invocation -> {
+			tripCache.onTripChanged(TripChangedEvent.updated(trip(2L, "Other")));
+			return List.of(trip(1L, "Trip 1"));
+		}).when(tripRepository).findWithAuthorByIdIn(any());
+
+		tripCache.get(1L);
+
+		assertThat(tripCache.peek(1L)).isPresent();
+	}
+
+	static Trip trip(Long id, String title) {
+		User author = new User();
+		author.setId(10L);
+		author.setEmail("author@example.com");
+		author.setPasswordHash("hash");
+		Trip trip = new Trip();
+		trip.setId(id);
+		trip.setTitle(title);
+		trip.setPhotos(new String[] { "a.jpg" });
+		trip.setTags(new String[] { "beach" });
+		trip.setAuthor(author);
+		return trip;
+	}
+}
@@ -0,0 +1,157 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.event.TripChangedEvent;
+import com.techup.spring_tourist.repository.TripRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripCountServiceTest {
+
+	private static final OffsetDateTime T1 = OffsetDateTime.of(2025, 3, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+	private static final OffsetDateTime T2 = T1.plusMinutes(5);
+
+	private TripRepository tripRepository;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		tripRepository = mock(TripRepository.class);
+		jdbcTemplate = mock(JdbcTemplate.class);
+		when(tripRepository.count()).thenReturn(42L);
+		when(tripRepository.findMaxUpdatedAt()).thenReturn(T1);
+	}
+
+	@Test
+	void instancesReadingTheSameRowsShareTheVersion() {
+		String version = service(Duration.ofMinutes(1)).collectionVersion();
+
+		assertThat(version).isEqualTo(T1.toInstant() + "/42");
+		assertThat(service(Duration.ofMinutes(1)).collectionVersion()).isEqualTo(version);
+	}
+
+	@Test
+	void ownWritesRereadOnlyTheWatermark() {
+		TripCountService service = service(Duration.ofMinutes(1));
+		service.collectionVersion();
+
+		when(tripRepository.findMaxUpdatedAt()).thenReturn(T2);
+		service.onTripChanged(TripChangedEvent.updated(trip()));
+
+		assertThat(service.collectionVersion()).isEqualTo(T2.toInstant() + "/42");
+		assertThat(service.collectionVersion()).isEqualTo(T2.toInstant() + "/42");
+		verify(tripRepository, times(2)).findMaxUpdatedAt();
+		verify(tripRepository, times(1)).count();
+	}
+
+	@Test
+	void otherInstancesUpdatesShowUpOnceMaxAgeHasPassed() {
+		TripCountService cached = service(Duration.ofMinutes(1));
+		TripCountService expired = service(Duration.ZERO);
+		cached.collectionVersion();
+		expired.collectionVersion();
+
+		when(tripRepository.findMaxUpdatedAt()).thenReturn(T2);
+
+		assertThat(cached.collectionVersion()).isEqualTo(T1.toInstant() + "/42");
+		assertThat(expired.collectionVersion()).isEqualTo(T2.toInstant() + "/42");
+	}
+
+	@Test
+	void countIsReadOncePerMaxAge() {
+		TripCountService service = service(Duration.ofMinutes(1));
+
+		assertThat(service.totalTrips()).isEqualTo(42L);
+		when(tripRepository.count()).thenReturn(50L);
+		assertThat(service.totalTrips()).isEqualTo(42L);
+		verify(tripRepository, times(1)).count();
+
+		expire(service);
+		assertThat(service.totalTrips()).isEqualTo(50L);
+		verify(tripRepository, times(2)).count();
+	}
+
+	@Test
+	void ownCreatesAndDeletesAdjustTheCachedCount() {
+		TripCountService service = service(Duration.ofMinutes(1));
+		service.totalTrips();
+
+		service.onTripChanged(TripChangedEvent.created(trip()));
+		service.onTripChanged(TripChangedEvent.created(trip()));
+		service.onTripChanged(TripChangedEvent.deleted(7L));
+		service.onTripChanged(TripChangedEvent.updated(trip()));
+
+		assertThat(service.totalTrips()).isEqualTo(43L);
+		verify(tripRepository, times(1)).count();
+	}
+
+	@Test
+	void refreshReplacesTheAdjustedCount() {
+		TripCountService service = service(Duration.ofMinutes(1));
+		service.totalTrips();
+		service.onTripChanged(TripChangedEvent.created(trip()));
+
+		when(tripRepository.count()).thenReturn(45L);
+		expire(service);
+
+		assertThat(service.totalTrips()).isEqualTo(45L);
+	}
+
+	@Test
+	void plannerEstimateReplacesTheCount() {
+		when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(1_000L);
+		TripCountService service = service(Duration.ofMinutes(1));
+		ReflectionTestUtils.setField(service, "usePlannerEstimate", true);
+
+		assertThat(service.totalTrips()).isEqualTo(1_000L);
+		assertThat(service.collectionVersion()).isEqualTo(T1.toInstant() + "/1000");
+		verify(tripRepository, never()).count();
+	}
+
+	@Test
+	void plannerEstimateFallsBackToCountUntilTheTableIsAnalyzed() {
+		when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(-1L);
+		TripCountService service = service(Duration.ZERO);
+		ReflectionTestUtils.setField(service, "usePlannerEstimate", true);
+
+		assertThat(service.totalTrips()).isEqualTo(42L);
+
+		when(jdbcTemplate.queryForObject(anyString(), eq(Long.class)))
+				.thenThrow(new DataAccessResourceFailureException("pg_class unavailable"));
+		assertThat(service.totalTrips()).isEqualTo(42L);
+		verify(tripRepository, times(2)).count();
+	}
+
+	private TripCountService service(Duration maxAge) {
+		TripCountService service = new TripCountService(tripRepository, jdbcTemplate);
+		ReflectionTestUtils.setField(service, "maxAge", maxAge);
+		return service;
+	}
+
+	// Backdates the last refresh instead of waiting out max-age
+	private static void expire(TripCountService service) {
+		ReflectionTestUtils.setField(service, "refreshedAtNanos", System.nanoTime() - Duration.ofHours(1).toNanos());
+	}
+
+	private static Trip trip() {
+		Trip trip = new Trip();
+		trip.setId(7L);
+		return trip;
+	}
+}
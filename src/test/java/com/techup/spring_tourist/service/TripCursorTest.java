@@ -0,0 +1,53 @@
+package com.techup.spring_tourist.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TripCursorTest {
+
+	@Test
+	void decodesWhatItEncodes() {
+		OffsetDateTime createdAt = OffsetDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000, ZoneOffset.ofHours(7));
+
+		TripCursor decoded = TripCursor.decode(new TripCursor(createdAt, 42L).encode());
+
+		assertThat(decoded.getCreatedAt().toInstant()).isEqualTo(createdAt.toInstant());
+		assertThat(decoded.getId()).isEqualTo(42L);
+	}
+
+	@Test
+	void encodingIsUrlSafe() {
+		String cursor = new TripCursor(OffsetDateTime.now(), Long.MAX_VALUE).encode();
+
+		assertThat(cursor).matches("[A-Za-z0-9_-]+");
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "", "not base64!", "MTIz", "YTpiOmM", "MTox", "MToyOjM6NA" })
+	void rejectsMalformedCursorsAsBadRequest(String cursor) {
+		assertThatThrownBy(() -> TripCursor.decode(cursor))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+	}
+
+	@Test
+	void rejectsOutOfRangeTimestampsAsBadRequest() {
+		String raw = Long.MAX_VALUE + ":0:1";
+		String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+		assertThatThrownBy(() -> TripCursor.decode(cursor))
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+	}
+}
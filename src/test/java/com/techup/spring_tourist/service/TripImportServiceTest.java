@@ -0,0 +1,114 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.dto.TripImportResult;
+import com.techup.spring_tourist.entity.User;
+import com.techup.spring_tourist.repository.TripRepository;
+import com.techup.spring_tourist.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(TripImportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+		"spring.sql.init.schema-locations=classpath:h2/schema.sql",
+		"spring.jpa.hibernate.ddl-auto=none",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.properties.hibernate.jdbc.batch_size=50",
+		"spring.jpa.properties.hibernate.order_inserts=true",
+		"spring.jpa.show-sql=false",
+		"trips.import.batch-size=100"
+})
+class TripImportServiceTest {
+
+	@Autowired
+	private TripImportService tripImportService;
+
+	@Autowired
+	private TripRepository tripRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@BeforeEach
+	void setUp() {
+		tripRepository.deleteAll();
+		if (userRepository.findByEmail("importer@example.com").isEmpty()) {
+			User user = new User();
+			user.setEmail("importer@example.com");
+			user.setPasswordHash("x");
+			userRepository.save(user);
+		}
+	}
+
+	@Test
+	void importsNdjsonInJdbcBatches() {
+		StringBuilder body = new StringBuilder();
+		for (int i = 1; i <= 1000; i++) {
+			body.append("{\"title\":\"Trip ").append(i).append("\",\"location\":\"Krabi\",\"tags\":[\"beach\"]}\n");
+		}
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		TripImportResult result = tripImportService.importTrips(stream(body.toString()), "importer@example.com");
+
+		assertThat(result.getImported()).isEqualTo(1000);
+		assertThat(result.getFailed()).isZero();
+		assertThat(tripRepository.count()).isEqualTo(1000);
+		// 20 insert batches of 50 plus one sequence call per 50 ids, instead of 1000 inserts
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(100);
+	}
+
+	@Test
+	void reportsBadRowsAndKeepsTheRest() {
+		String body = "["
+				+ "{\"title\":\"Good\",\"location\":\"Krabi\"},"
+				+ "{\"title\":\"\",\"location\":\"Krabi\"},"
+				+ "{\"title\":\"Bad coordinates\",\"location\":\"Krabi\",\"latitude\":120,\"longitude\":10},"
+				+ "{\"title\":\"Wrong type\",\"location\":\"Krabi\",\"latitude\":\"north\",\"longitude\":10},"
+				+ "{\"title\":\"Also good\",\"location\":\"Phuket\",\"latitude\":7.88,\"longitude\":98.39}"
+				+ "]";
+
+		TripImportResult result = tripImportService.importTrips(stream(body), "importer@example.com");
+
+		assertThat(result.getImported()).isEqualTo(2);
+		assertThat(result.getFailed()).isEqualTo(3);
+		assertThat(result.getErrors()).extracting(TripImportResult.RowError::getRow).containsExactly(2L, 3L, 4L);
+		assertThat(tripRepository.count()).isEqualTo(2);
+	}
+
+	@Test
+	void stopsAtMalformedJsonButKeepsEarlierRows() {
+		String body = "{\"title\":\"First\",\"location\":\"Krabi\"}\n{\"title\": oops\n";
+
+		TripImportResult result = tripImportService.importTrips(stream(body), "importer@example.com");
+
+		assertThat(result.getImported()).isEqualTo(1);
+		assertThat(result.getErrors()).singleElement()
+				.satisfies(error -> assertThat(error.getError()).startsWith("Malformed JSON"));
+	}
+
+	private static ByteArrayInputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,112 @@
+package com.techup.spring_tourist.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TripInvertedIndexTest {
+
+	@Test
+	void ranksTitleMatchesAboveDescriptionMatches() {
+		TripInvertedIndex index = new TripInvertedIndex();
+		index.put(1L, "Temple tour", "Night market after the beach", "Bangkok", new String[0], null);
+		index.put(2L, "Beach day", "Snorkelling", "Krabi", new String[] {"island"}, null);
+
+		TripSearchIndex.Hits hits = index.search("beach", 0, 10);
+
+		assertThat(hits.getTripIds()).containsExactly(2L, 1L);
+		assertThat(hits.getTotal()).isEqualTo(2);
+	}
+
+	@Test
+	void allWordsMustMatchAsPrefixes() {
+		TripInvertedIndex index = new TripInvertedIndex();
+		index.put(1L, "Island hopping", null, "Krabi", new String[] {"beach"}, null);
+		index.put(2L, "Island museum", null, "Bangkok", new String[0], null);
+
+		assertThat(index.search("isl bea", 0, 10).getTripIds()).containsExactly(1L);
+	}
+
+	@Test
+	void segmentsThaiText() {
+		TripInvertedIndex index = new TripInvertedIndex();
+		index.put(1L, "เที่ยวเชียงใหม่สวยมาก", null, "เชียงใหม่", new String[0], null);
+
+		assertThat(index.search("สวย", 0, 10).getTripIds()).containsExactly(1L);
+	}
+
+	@Test
+	void updatesAndRemovesReplacePostings() {
+		TripInvertedIndex index = new TripInvertedIndex();
+		index.put(1L, "Old title", null, "Phuket", new String[0], null);
+		index.put(1L, "New title", null, "Phuket", new String[0], null);
+
+		assertThat(index.search("old", 0, 10).getTotal()).isZero();
+		assertThat(index.search("new", 0, 10).getTripIds()).containsExactly(1L);
+
+		index.remove(1L);
+
+		assertThat(index.search("phuket", 0, 10).getTotal()).isZero();
+		assertThat(index.size()).isZero();
+	}
+
+	@Test
+	void pagesNewestFirstAmongEqualScores() {
+		TripInvertedIndex index = new TripInvertedIndex();
+		for (long id = 1; id <= 5; id++) {
+			index.put(id, "Beach " + id, null, "Krabi", new String[0], null);
+		}
+
+		TripSearchIndex.Hits hits = index.search("beach", 2, 2);
+
+		assertThat(hits.getTripIds()).containsExactly(3L, 2L);
+		assertThat(hits.getTotal()).isEqualTo(5);
+	}
+
+	@Test
+	void quotedWordsMustBeAdjacent() {
+		TripInvertedIndex index = new TripInvertedIndex();
+		index.put(1L, "Night market tour", null, "Chiang Mai", new String[0], null);
+		index.put(2L, "Market by night", null, "Chiang Mai", new String[0], null);
+
+		assertThat(index.search("\"night market\"", 0, 10).getTripIds()).containsExactly(1L);
+		assertThat(index.search("night market", 0, 10).getTotal()).isEqualTo(2);
+	}
+
+	@Test
+	void phrasesSpanFieldsInTsvectorOrder() {
+		TripInvertedIndex index = new TripInvertedIndex();
+		index.put(1L, "Old town", "Walking tour", "Phuket", new String[0], null);
+
+		// Words are numbered title, location, tags, then description, as the tsvector concatenation does
+		assertThat(index.search("\"phuket walking\"", 0, 10).getTripIds()).containsExactly(1L);
+		assertThat(index.search("\"town tour\"", 0, 10).getTotal()).isZero();
+	}
+
+	@Test
+	void matchesInsideWordsLikeTheSqlSubstringSearch() {
+		TripInvertedIndex index = new TripInvertedIndex();
+		index.put(1L, "Temple run", null, "Bangkok", new String[0], null);
+		index.put(2L, "Kok river rafting", null, "Chiang Rai", new String[0], null);
+		index.put(3L, "Night market", null, "Krabi", new String[0], null);
+
+		// Word matches rank first, substring-only matches after them
+		assertThat(index.search("kok", 0, 10).getTripIds()).containsExactly(2L, 1L);
+		assertThat(index.search("ght mar", 0, 10).getTripIds()).containsExactly(3L);
+		assertThat(index.search("ko", 0, 10).getTripIds()).containsExactly(2L);
+	}
+
+	@Test
+	void removedTripsLeaveNoSubstringMatches() {
+		TripInvertedIndex index = new TripInvertedIndex();
+		index.put(1L, "Temple run", null, "Bangkok", new String[0], null);
+		index.put(1L, "Temple run", null, "Ayutthaya", new String[0], null);
+
+		assertThat(index.search("kok", 0, 10).getTotal()).isZero();
+		assertThat(index.search("utth", 0, 10).getTripIds()).containsExactly(1L);
+
+		index.remove(1L);
+
+		assertThat(index.search("utth", 0, 10).getTotal()).isZero();
+	}
+}
@@ -0,0 +1,141 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.dto.CursorPaginatedResponse;
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.entity.User;
+import com.techup.spring_tourist.repository.TripRepository;
+import com.techup.spring_tourist.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Keyset pages on the H2 schema: trips sharing a {@code created_at} are split across pages by id
+ * without repeating or skipping any, and the last page carries no cursor.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:keyset;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+		"spring.sql.init.schema-locations=classpath:h2/schema.sql",
+		"spring.jpa.hibernate.ddl-auto=none",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+class TripKeysetPaginationTest {
+
+	private static final OffsetDateTime TIE = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+	private static final OffsetDateTime LATER = TIE.plusDays(1);
+
+	@Autowired
+	private TripRepository tripRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TripService tripService;
+	private User author;
+	private List<Long> newestFirst;
+
+	@BeforeEach
+	void setUp() {
+		author = persistUser("keyset@example.com");
+		User other = persistUser("other@example.com");
+
+		// One trip newer than the rest, then five created in the same instant
+		Long newest = persistTrip("Newest", author, LATER);
+		List<Long> tied = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			tied.add(persistTrip("Tied " + i, author, TIE));
+		}
+		persistTrip("Someone else's", other, TIE);
+		entityManager.flush();
+		entityManager.clear();
+
+		newestFirst = new ArrayList<>();
+		newestFirst.add(newest);
+		newestFirst.addAll(tied.reversed());
+
+		tripService = new TripService(tripRepository, userRepository, mock(TripPhotoUploader.class),
+				mock(TripSearchIndex.class), mock(TripCountService.class), mock(TripGeoIndex.class),
+				mock(TripTagIndex.class), mock(TripSuggestIndex.class), mock(TripCache.class),
+				mock(PendingUploadService.class), transactionManager, mock(ApplicationEventPublisher.class));
+	}
+
+	@Test
+	void tiesOnCreatedAtAreBrokenByIdAcrossPages() {
+		List<Long> seen = new ArrayList<>();
+		List<String> cursors = new ArrayList<>();
+		String cursor = null;
+		do {
+			CursorPaginatedResponse<Trip> page = tripService.getTripsByUserEmail(author.getEmail(), cursor, 2);
+			page.getData().forEach(trip -> seen.add(trip.getId()));
+			cursor = page.getNextCursor();
+			cursors.add(cursor);
+		} while (cursor != null);
+
+		assertThat(seen).containsExactlyElementsOf(newestFirst);
+		assertThat(cursors).hasSize(3).last().isNull();
+	}
+
+	@Test
+	void pageEndingExactlyOnTheLastTripHasNoCursor() {
+		CursorPaginatedResponse<Trip> first = tripService.getAllTrips(null, 4);
+		CursorPaginatedResponse<Trip> last = tripService.getAllTrips(first.getNextCursor(), 3);
+
+		assertThat(first.getNextCursor()).isNotNull();
+		assertThat(first.getData()).hasSize(4);
+		assertThat(last.getData()).hasSize(3);
+		assertThat(last.getNextCursor()).isNull();
+	}
+
+	@Test
+	void oversizedLimitIsClamped() {
+		CursorPaginatedResponse<Trip> page = tripService.getAllTrips(null, Integer.MAX_VALUE);
+
+		assertThat(page.getLimit()).isEqualTo(TripService.MAX_CURSOR_LIMIT);
+		assertThat(page.getData()).hasSize(7);
+		assertThat(page.getNextCursor()).isNull();
+	}
+
+	private User persistUser(String email) {
+		User user = new User();
+		user.setEmail(email);
+		user.setPasswordHash("x");
+		entityManager.persist(user);
+		return user;
+	}
+
+	// created_at is stamped on persist, so the tie is written afterwards
+	private Long persistTrip(String title, User author, OffsetDateTime createdAt) {
+		Trip trip = new Trip();
+		trip.setTitle(title);
+		trip.setLocation("Krabi");
+		trip.setAuthor(author);
+		entityManager.persist(trip);
+		entityManager.flush();
+		entityManager.createNativeQuery("UPDATE trips SET created_at = ?1 WHERE id = ?2")
+				.setParameter(1, createdAt)
+				.setParameter(2, trip.getId())
+				.executeUpdate();
+		return trip.getId();
+	}
+}
@@ -0,0 +1,92 @@
+package com.techup.spring_tourist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.event.TripChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripResponseCacheTest {
+
+	private static final OffsetDateTime VERSION = OffsetDateTime.of(2025, 3, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+	private TripCache tripCache;
+	private TripResponseCache responseCache;
+
+	@BeforeEach
+	void setUp() {
+		tripCache = mock(TripCache.class);
+		ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+		responseCache = new TripResponseCache(tripCache, objectMapper, new SimpleMeterRegistry(), 1 << 20, 512, Duration.ofMinutes(10));
+	}
+
+	@Test
+	void encodesOncePerVersion() throws IOException {
+		when(tripCache.get(1L)).thenReturn(Optional.of(trip(VERSION, "short")));
+
+		TripResponseCache.Encoded first = responseCache.get(1L, VERSION);
+		assertThat(responseCache.get(1L, VERSION)).isSameAs(first);
+		verify(tripCache, times(1)).get(1L);
+		assertThat(new String(first.json())).contains("\"title\":\"short\"");
+		assertThat(first.gzip()).isNull();
+
+		OffsetDateTime updated = VERSION.plusSeconds(1);
+		when(tripCache.get(1L)).thenReturn(Optional.of(trip(updated, "a much longer title ".repeat(40))));
+		TripResponseCache.Encoded second = responseCache.get(1L, updated);
+		assertThat(second).isNotSameAs(first);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(second.gzip()))) {
+			assertThat(in.readAllBytes()).isEqualTo(second.json());
+		}
+	}
+
+	@Test
+	void dropsEntriesWhenTripChanges() {
+		Trip trip = trip(VERSION, "title");
+		when(tripCache.get(1L)).thenReturn(Optional.of(trip));
+		TripResponseCache.Encoded first = responseCache.get(1L, VERSION);
+
+		responseCache.onTripChanged(TripChangedEvent.deleted(1L));
+		when(tripCache.get(1L)).thenReturn(Optional.empty());
+
+		assertThat(responseCache.get(1L, VERSION)).isNull();
+	}
+
+	@Test
+	void negotiatesJsonAndGzip() {
+		assertThat(TripResponseCache.servesJson(null)).isTrue();
+		assertThat(TripResponseCache.servesJson("application/json, text/plain, */*")).isTrue();
+		assertThat(TripResponseCache.servesJson("application/cbor")).isFalse();
+		assertThat(TripResponseCache.servesJson("application/x-jackson-smile;q=0.9, application/json")).isFalse();
+		assertThat(TripResponseCache.servesJson("text/html")).isFalse();
+
+		assertThat(TripResponseCache.acceptsGzip("gzip, deflate, br")).isTrue();
+		assertThat(TripResponseCache.acceptsGzip("br;q=1.0, gzip;q=0.5")).isTrue();
+		assertThat(TripResponseCache.acceptsGzip("gzip;q=0")).isFalse();
+		assertThat(TripResponseCache.acceptsGzip("identity")).isFalse();
+	}
+
+	private static Trip trip(OffsetDateTime updatedAt, String title) {
+		Trip trip = new Trip();
+		trip.setId(1L);
+		trip.setTitle(title);
+		trip.setLocation("Chiang Mai");
+		trip.setUpdatedAt(updatedAt);
+		return trip;
+	}
+}
@@ -0,0 +1,52 @@
+package com.techup.spring_tourist.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TripSearchQueryTest {
+
+	@Test
+	void wordsBecomePrefixTerms() {
+		TripSearchQuery query = TripSearchQuery.parse("Chiang-Mai night");
+
+		assertThat(query.getTsQuery()).isEqualTo("'chiang':* & 'mai':* & 'night':*");
+		assertThat(query.getLikePattern()).isEqualTo("%chiang-mai night%");
+	}
+
+	@Test
+	void quotedTextBecomesPhrase() {
+		TripSearchQuery query = TripSearchQuery.parse("\"old town\" market");
+
+		assertThat(query.getTsQuery()).isEqualTo("('old' <-> 'town') & 'market':*");
+	}
+
+	@Test
+	void operatorsAndQuotesAreNotPassedThrough() {
+		TripSearchQuery query = TripSearchQuery.parse("beach' | !island & 100%");
+
+		assertThat(query.getTsQuery()).isEqualTo("'beach':* & 'island':* & '100':*");
+		assertThat(query.getLikePattern()).isEqualTo("%beach' | !island & 100\\%%");
+	}
+
+	@Test
+	void shortKeywordSkipsSubstringMatch() {
+		TripSearchQuery query = TripSearchQuery.parse("ko");
+
+		assertThat(query.hasLikePattern()).isFalse();
+		assertThat(query.isEmpty()).isFalse();
+	}
+
+	@Test
+	void thaiTextKeepsCombiningMarks() {
+		TripSearchQuery query = TripSearchQuery.parse("เชียงใหม่");
+
+		assertThat(query.getTsQuery()).isEqualTo("'เชียงใหม่':*");
+		assertThat(query.getLikePattern()).isEqualTo("%เชียงใหม่%");
+	}
+
+	@Test
+	void blankKeywordIsEmpty() {
+		assertThat(TripSearchQuery.parse("  ").isEmpty()).isTrue();
+	}
+}
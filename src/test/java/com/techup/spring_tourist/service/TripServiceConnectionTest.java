@@ -0,0 +1,144 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.entity.User;
+import com.techup.spring_tourist.repository.TripRepository;
+import com.techup.spring_tourist.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Photo uploads take seconds; no pooled connection may be checked out while they run. Requests are
+ * wrapped the way {@code spring.jpa.open-in-view} would wrap them, so turning it back on fails here.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:connections;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.sql.init.schema-locations=classpath:h2/schema.sql",
+		"spring.jpa.hibernate.ddl-auto=none",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false"
+})
+class TripServiceConnectionTest {
+
+	private static final String EMAIL = "uploader@example.com";
+
+	@Autowired
+	private TripRepository tripRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private Environment environment;
+
+	private final TripPhotoUploader tripPhotoUploader = mock(TripPhotoUploader.class);
+	private final MultipartFile[] photos = {
+			new MockMultipartFile("photos", "a.jpg", "image/jpeg", new byte[] { 1, 2, 3 })
+	};
+
+	private TripService tripService;
+	private OpenEntityManagerInViewInterceptor openInView;
+	private ServletWebRequest request;
+	private int uploads;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		tripRepository.deleteAll();
+		if (userRepository.findByEmail(EMAIL).isEmpty()) {
+			User user = new User();
+			user.setEmail(EMAIL);
+			user.setPasswordHash("x");
+			userRepository.save(user);
+		}
+
+		HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+		when(tripPhotoUploader.upload(any())).thenAnswer(invocation -> {
+			uploads++;
+			assertThat(hikari.getHikariPoolMXBean().getActiveConnections())
+					.as("connections checked out during upload")
+					.isZero();
+			return new TripPhotoUploader.Uploaded(
+					new String[] { "photo" }, new String[] { "medium" }, new String[] { "thumb" }, null);
+		});
+
+		tripService = new TripService(tripRepository, userRepository, tripPhotoUploader,
+				mock(TripSearchIndex.class), mock(TripCountService.class), mock(TripGeoIndex.class),
+				mock(TripTagIndex.class), mock(TripSuggestIndex.class), mock(TripCache.class),
+				mock(PendingUploadService.class), transactionManager, mock(ApplicationEventPublisher.class));
+
+		if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+			openInView = new OpenEntityManagerInViewInterceptor();
+			openInView.setEntityManagerFactory(entityManagerFactory);
+			request = new ServletWebRequest(new MockHttpServletRequest());
+			openInView.preHandle(request);
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (openInView != null) {
+			openInView.afterCompletion(request, null);
+		}
+	}
+
+	@Test
+	void createUploadsWithoutHoldingAConnection() {
+		Trip saved = tripService.createTripWithPhotos("Title", "Description", photos, new String[] { "beach" },
+				"Phuket", null, null, EMAIL);
+
+		assertThat(uploads).isEqualTo(1);
+		assertThat(saved.getThumbnails()).containsExactly("thumb");
+	}
+
+	@Test
+	void updateUploadsWithoutHoldingAConnection() {
+		Trip trip = new Trip();
+		trip.setTitle("Old");
+		trip.setLocation("Phuket");
+		trip.setAuthor(userRepository.findByEmail(EMAIL).orElseThrow());
+		Long id = tripRepository.save(trip).getId();
+
+		Trip saved = tripService.updateTripWithPhotos(id, "New", null, photos, null, "Krabi", null, null, EMAIL);
+
+		assertThat(uploads).isEqualTo(1);
+		assertThat(saved.getMediumPhotos()).containsExactly("medium");
+		assertThat(saved.getAuthor().getEmail()).isEqualTo(EMAIL);
+	}
+}
@@ -0,0 +1,128 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.dto.PaginatedResponse;
+import com.techup.spring_tourist.entity.Trip;
+import com.techup.spring_tourist.entity.User;
+import com.techup.spring_tourist.repository.TripRepository;
+import com.techup.spring_tourist.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripServiceTest {
+
+	private TripRepository tripRepository;
+	private UserRepository userRepository;
+	private TripCountService tripCountService;
+	private TripCache tripCache;
+	private PendingUploadService pendingUploadService;
+	private TripService tripService;
+	private Trip existing;
+
+	@BeforeEach
+	void setUp() {
+		tripRepository = mock(TripRepository.class);
+		userRepository = mock(UserRepository.class);
+		tripCountService = mock(TripCountService.class);
+		tripCache = mock(TripCache.class);
+		pendingUploadService = mock(PendingUploadService.class);
+		tripService = new TripService(tripRepository, userRepository, mock(TripPhotoUploader.class),
+				mock(TripSearchIndex.class), tripCountService, mock(TripGeoIndex.class),
+				mock(TripTagIndex.class), mock(TripSuggestIndex.class), tripCache,
+				pendingUploadService, mock(PlatformTransactionManager.class), mock(ApplicationEventPublisher.class));
+
+		existing = new Trip();
+		existing.setId(1L);
+		existing.setPhotos(new String[] { "a.jpg" });
+		existing.setMediumPhotos(new String[] { "a-medium.jpg" });
+		existing.setThumbnails(new String[] { "a-thumb.jpg" });
+		when(tripRepository.findWithAuthorById(1L)).thenReturn(Optional.of(existing));
+		when(tripRepository.save(any(Trip.class))).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void jsonUpdateKeepsVariantsWhilePhotosStayTheSame() {
+		Trip saved = tripService.updateTrip(1L, request("New title", "a.jpg"));
+
+		assertThat(saved.getTitle()).isEqualTo("New title");
+		assertThat(saved.getMediumPhotos()).containsExactly("a-medium.jpg");
+		assertThat(saved.getThumbnails()).containsExactly("a-thumb.jpg");
+		verify(pendingUploadService, never()).record(any());
+	}
+
+	@Test
+	void jsonUpdateDropsVariantsOfReplacedPhotos() {
+		Trip saved = tripService.updateTrip(1L, request("Title", "b.jpg"));
+
+		assertThat(saved.getPhotos()).containsExactly("b.jpg");
+		assertThat(saved.getMediumPhotos()).isNull();
+		assertThat(saved.getThumbnails()).isNull();
+		verify(pendingUploadService).record(new String[] { "a.jpg", "a-medium.jpg", "a-thumb.jpg" });
+	}
+
+	@Test
+	void listingWithoutTotalReturnsTheSliceShape() {
+		when(tripRepository.findTripSlice(PageRequest.of(1, 2)))
+				.thenReturn(new SliceImpl<>(List.of(existing, existing), PageRequest.of(1, 2), true));
+
+		PaginatedResponse<Trip> response = tripService.getAllTrips(1, 2, false);
+
+		assertSliceShape(response, 1, 2, true);
+		verify(tripCountService, never()).totalTrips();
+	}
+
+	@Test
+	void ownTripsWithoutTotalReturnTheSliceShape() {
+		User user = new User();
+		user.setEmail("me@example.com");
+		when(userRepository.findByEmail("me@example.com")).thenReturn(Optional.of(user));
+		when(tripRepository.findTripSliceByAuthor(user, PageRequest.of(0, 2)))
+				.thenReturn(new SliceImpl<>(List.of(existing), PageRequest.of(0, 2), false));
+
+		PaginatedResponse<Trip> response = tripService.getTripsByUserEmail("me@example.com", 0, 2, false);
+
+		assertSliceShape(response, 0, 1, false);
+		verify(tripRepository, never()).findByAuthorOrderByCreatedAtDesc(any(User.class), any(Pageable.class));
+	}
+
+	@Test
+	void searchWithoutTotalReturnsTheSliceShape() {
+		when(tripRepository.searchRankedOrSubstringIdsSlice(any(), any(), any(Pageable.class)))
+				.thenReturn(new SliceImpl<>(List.of(1L, 2L), PageRequest.of(0, 2), true));
+		when(tripCache.getAll(List.of(1L, 2L))).thenReturn(List.of(existing, existing));
+
+		PaginatedResponse<Trip> response = tripService.searchTrips("phuket", 0, 2, false);
+
+		assertSliceShape(response, 0, 2, true);
+		verify(tripRepository, never()).searchRankedOrSubstringIds(any(), any(), any(Pageable.class));
+	}
+
+	private static void assertSliceShape(PaginatedResponse<Trip> response, int page, int size, boolean hasNext) {
+		assertThat(response.getPage()).isEqualTo(page);
+		assertThat(response.getData()).hasSize(size);
+		assertThat(response.getHasNext()).isEqualTo(hasNext);
+		assertThat(response.getTotal()).isNull();
+		assertThat(response.getTotalPages()).isNull();
+	}
+
+	private static Trip request(String title, String... photos) {
+		Trip trip = new Trip();
+		trip.setTitle(title);
+		trip.setPhotos(photos);
+		return trip;
+	}
+}
@@ -0,0 +1,63 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.dto.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TripSuggestionsTest {
+
+	@Test
+	void completesLocationsAndTagsByFrequency() {
+		TripSuggestions suggestions = new TripSuggestions(10);
+		suggestions.put(1L, "Krabi", new String[] {"Kayak", "beach"}, null);
+		suggestions.put(2L, "krabi ", new String[] {"kayak"}, null);
+		suggestions.put(3L, "Koh Samui", new String[] {"Kayak"}, null);
+		suggestions.put(4L, "Bangkok", new String[0], null);
+
+		assertThat(suggestions.suggest("K", null, 10))
+				.extracting(Suggestion::getText, Suggestion::getKind, Suggestion::getCount)
+				.containsExactly(
+						tuple("Kayak", "tag", 3L),
+						tuple("Krabi", "location", 2L),
+						tuple("Koh Samui", "location", 1L));
+		assertThat(suggestions.suggest("kr", null, 10)).extracting(Suggestion::getText).containsExactly("Krabi");
+		assertThat(suggestions.suggest("k", "location", 1)).extracting(Suggestion::getText).containsExactly("Krabi");
+		assertThat(suggestions.suggest("x", null, 10)).isEmpty();
+		assertThat(suggestions.suggest(" ", null, 10)).isEmpty();
+	}
+
+	@Test
+	void updatesAndDeletesMoveOnlyTheTripsOwnWeight() {
+		TripSuggestions suggestions = new TripSuggestions(10);
+		suggestions.put(1L, "Chiang Mai", new String[] {"temple"}, null);
+		suggestions.put(2L, "Chiang Mai", new String[] {"temple"}, null);
+
+		suggestions.put(1L, "Chiang Rai", new String[] {"temple"}, null);
+		assertThat(suggestions.suggest("chiang", null, 10))
+				.extracting(Suggestion::getText, Suggestion::getCount)
+				.containsExactly(tuple("Chiang Mai", 1L), tuple("Chiang Rai", 1L));
+		assertThat(suggestions.suggest("temple", null, 10)).extracting(Suggestion::getCount).containsExactly(2L);
+
+		suggestions.remove(2L);
+		suggestions.remove(2L);
+		assertThat(suggestions.suggest("chiang", null, 10)).extracting(Suggestion::getText).containsExactly("Chiang Rai");
+		assertThat(suggestions.size()).isEqualTo(1);
+	}
+
+	@Test
+	void keepsOnlyTheHeaviestCompletionsPerPrefix() {
+		TripSuggestions suggestions = new TripSuggestions(2);
+		for (long id = 1; id <= 6; id++) {
+			suggestions.put(id, id <= 3 ? "Pai" : id <= 5 ? "Phuket" : "Phang Nga", new String[0], null);
+		}
+
+		assertThat(suggestions.suggest("p", null, 10)).extracting(Suggestion::getText).containsExactly("Pai", "Phuket");
+
+		suggestions.remove(1L);
+		suggestions.remove(2L);
+		assertThat(suggestions.suggest("p", null, 10)).extracting(Suggestion::getText).containsExactly("Phuket", "Pai");
+		assertThat(suggestions.suggest("ph", null, 10)).extracting(Suggestion::getText).containsExactly("Phuket", "Phang Nga");
+	}
+}
@@ -0,0 +1,66 @@
+package com.techup.spring_tourist.service;
+
+import com.techup.spring_tourist.dto.TagCount;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TripTagBitmapsTest {
+
+	private static TripTagBitmaps catalog() {
+		TripTagBitmaps index = new TripTagBitmaps();
+		index.put(1L, new String[] {"Beach", "island"}, null);
+		index.put(2L, new String[] {"beach"}, null);
+		index.put(3L, new String[] {" island ", "temple", "ISLAND"}, null);
+		index.put(4L, new String[0], null);
+		return index;
+	}
+
+	@Test
+	void filtersWithAndOrOrNewestFirst() {
+		TripTagBitmaps index = catalog();
+
+		TripSearchIndex.Hits all = index.filter(List.of("beach", "Island"), true, 0, 10);
+		assertThat(all.getTripIds()).containsExactly(1L);
+		assertThat(all.getTotal()).isEqualTo(1);
+
+		TripSearchIndex.Hits any = index.filter(List.of("beach", "island"), false, 0, 10);
+		assertThat(any.getTripIds()).containsExactly(3L, 2L, 1L);
+
+		TripSearchIndex.Hits secondPage = index.filter(List.of("beach", "island"), false, 2, 2);
+		assertThat(secondPage.getTripIds()).containsExactly(1L);
+		assertThat(secondPage.getTotal()).isEqualTo(3);
+
+		assertThat(index.filter(List.of("beach", "desert"), true, 0, 10).getTotal()).isZero();
+		assertThat(index.filter(List.of("beach", "desert"), false, 0, 10).getTripIds()).containsExactly(2L, 1L);
+	}
+
+	@Test
+	void countsFacetsOverTheCatalogOrWithinTags() {
+		TripTagBitmaps index = catalog();
+
+		assertThat(index.facets(List.of(), 10))
+				.extracting(TagCount::getTag, TagCount::getCount)
+				.containsExactly(tuple("beach", 2L), tuple("island", 2L), tuple("temple", 1L));
+		assertThat(index.facets(List.of(), 1)).extracting(TagCount::getTag).containsExactly("beach");
+		assertThat(index.facets(List.of("island"), 10))
+				.extracting(TagCount::getTag, TagCount::getCount)
+				.containsExactly(tuple("beach", 1L), tuple("temple", 1L));
+	}
+
+	@Test
+	void updatesAndRemovesMoveTripsBetweenTags() {
+		TripTagBitmaps index = catalog();
+
+		index.put(2L, new String[] {"temple"}, null);
+		index.remove(1L);
+
+		assertThat(index.filter(List.of("beach"), true, 0, 10).getTotal()).isZero();
+		assertThat(index.filter(List.of("temple"), true, 0, 10).getTripIds()).containsExactly(3L, 2L);
+		assertThat(index.facets(List.of(), 10)).extracting(TagCount::getTag).containsExactly("temple", "island");
+		assertThat(index.size()).isEqualTo(3);
+	}
+}
@@ -0,0 +1,26 @@
+-- H2 stand-in for the Postgres tables; TEXT[] columns become CHARACTER VARYING ARRAY
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password_hash TEXT NOT NULL,
+    display_name VARCHAR(100),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE trips (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title TEXT NOT NULL,
+    description TEXT,
+    photos CHARACTER VARYING ARRAY NOT NULL,
+    thumbnails CHARACTER VARYING ARRAY,
+    medium_photos CHARACTER VARYING ARRAY,
+    tags CHARACTER VARYING ARRAY NOT NULL,
+    location TEXT NOT NULL,
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    author_id BIGINT REFERENCES users (id),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE SEQUENCE trips_seq START WITH 1 INCREMENT BY 50;